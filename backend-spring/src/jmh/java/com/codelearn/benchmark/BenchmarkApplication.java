@@ -0,0 +1,52 @@
+package com.codelearn.benchmark;
+
+import com.codelearn.CodeLearnApplication;
+import com.codelearn.judge.TestDataStore;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+// Boots the application against an in-memory Mongo server so benchmarks run without external services
+public class BenchmarkApplication implements AutoCloseable {
+
+    private final MongoServer mongoServer;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkApplication(MongoServer mongoServer, ConfigurableApplicationContext context) {
+        this.mongoServer = mongoServer;
+        this.context = context;
+    }
+
+    public static BenchmarkApplication start() {
+        MongoServer mongoServer = new MongoServer(new MemoryBackend());
+        String uri = mongoServer.bindAndGetConnectionString() + "/codelearn-benchmark";
+
+        // Command-line arguments, unlike builder defaults, take precedence over application.yml
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CodeLearnApplication.class)
+                .run("--spring.data.mongodb.uri=" + uri,
+                        "--server.port=0",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN",
+                        // Judge synchronously so submitSolution measures the whole request path
+                        "--submission.ingestion.enabled=false",
+                        // Dev and CI machines usually cannot create the namespace jail
+                        "--judge.isolation=none");
+        return new BenchmarkApplication(mongoServer, context);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public DatasetSeeder seeder() {
+        return new DatasetSeeder(getBean(MongoTemplate.class), getBean(TestDataStore.class));
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        mongoServer.shutdownNow();
+    }
+}
@@ -0,0 +1,62 @@
+package com.codelearn.benchmark;
+
+import com.codelearn.dto.request.SubmitSolutionRequest;
+import com.codelearn.dto.response.SubmissionResponse;
+import com.codelearn.service.ContestService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+
+// Every submission carries the same source, so after the first run the judge answers from its verdict
+// cache and the benchmark measures validation, persistence, score awards and scoreboard updates.
+// The first submission needs python3 on the PATH.
+@State(Scope.Benchmark)
+public class ContestServiceBenchmark extends BaseBenchmark {
+
+    @Param({"1000"})
+    public int users;
+
+    @Param({"10"})
+    public int groups;
+
+    @Param({"1000", "50000"})
+    public int submissionsPerContest;
+
+    private BenchmarkApplication application;
+    private ContestService contestService;
+    private List<String> userIds;
+    private String contestId;
+    private SubmitSolutionRequest request;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start();
+        DatasetSeeder seeder = application.seeder();
+        userIds = seeder.seedUsers(users);
+        contestId = seeder.seedContest(userIds, groups, submissionsPerContest).getId();
+        contestService = application.getBean(ContestService.class);
+
+        request = new SubmitSolutionRequest();
+        request.setProblemIndex(0);
+        request.setLanguage("python");
+        request.setCode(DatasetSeeder.SUM_SOLUTION);
+        contestService.submitSolution(userIds.get(0), contestId, request);
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public SubmissionResponse submitSolution() {
+        String userId = userIds.get(next++ % userIds.size());
+        return contestService.submitSolution(userId, contestId, request);
+    }
+}
@@ -0,0 +1,191 @@
+package com.codelearn.benchmark;
+
+import com.codelearn.judge.TestDataStore;
+import com.codelearn.judge.Verdict;
+import com.codelearn.model.Contest;
+import com.codelearn.model.Discussion;
+import com.codelearn.model.Group;
+import com.codelearn.model.Post;
+import com.codelearn.model.Submission;
+import com.codelearn.model.User;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Seeds deterministic datasets so runs with the same sizes are comparable across builds
+public class DatasetSeeder {
+
+    public static final String SUM_SOLUTION = "a, b = map(int, input().split())\nprint(a + b)\n";
+
+    private static final String[] TOPICS = {"Two pointer trick", "Binary search on the answer",
+            "Sliding window maximum", "Segment tree range sums", "Dijkstra shortest paths", "Knapsack dynamic programming"};
+    private static final String[] LANGUAGES = {"java", "python", "cpp", "javascript"};
+    private static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+    private static final String[] COLLEGES = {"MIT", "Stanford", "IIT Madras", "CMU"};
+    private static final String[] DEPARTMENTS = {"CS", "EE", "ME"};
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final TestDataStore testDataStore;
+    private final Random random = new Random(42);
+
+    DatasetSeeder(MongoTemplate mongoTemplate, TestDataStore testDataStore) {
+        this.mongoTemplate = mongoTemplate;
+        this.testDataStore = testDataStore;
+    }
+
+    public List<String> seedUsers(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .id(new ObjectId().toHexString())
+                    .name("User " + i)
+                    .email("user" + i + "@bench.local")
+                    .password("not-a-real-hash")
+                    .college(COLLEGES[i % COLLEGES.length])
+                    .department(DEPARTMENTS[i % DEPARTMENTS.length])
+                    .year(1 + i % 4)
+                    .codingScore(random.nextInt(5000))
+                    .bio("Benchmark user " + i)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        insert(users, User.class);
+        return users.stream().map(User::getId).toList();
+    }
+
+    public List<String> seedPosts(List<String> authors, int count) {
+        List<Post> posts = new ArrayList<>(count);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            posts.add(Post.builder()
+                    .id(new ObjectId().toHexString())
+                    .author(pick(authors))
+                    .title(TOPICS[i % TOPICS.length] + " #" + i)
+                    .problem("Given an array of integers, find two numbers that add up to a target. ".repeat(4))
+                    .code("for (int i = 0, j = n - 1; i < j; ) {\n    // ...\n}\n".repeat(10))
+                    .language(LANGUAGES[i % LANGUAGES.length])
+                    .difficulty(DIFFICULTIES[i % DIFFICULTIES.length])
+                    .tags(List.of("arrays", "two-pointers"))
+                    .views(random.nextInt(10_000))
+                    .createdAt(now.minusMinutes(i))
+                    .build());
+        }
+        insert(posts, Post.class);
+        return posts.stream().map(Post::getId).toList();
+    }
+
+    public void seedDiscussion(String postId, List<String> users, int comments, int repliesPerComment) {
+        List<Discussion.Comment> thread = new ArrayList<>(comments);
+        for (int i = 0; i < comments; i++) {
+            List<Discussion.Reply> replies = new ArrayList<>(repliesPerComment);
+            for (int j = 0; j < repliesPerComment; j++) {
+                replies.add(Discussion.Reply.builder()
+                        .id(new ObjectId().toHexString())
+                        .user(pick(users))
+                        .content("Reply " + j)
+                        .build());
+            }
+            thread.add(Discussion.Comment.builder()
+                    .id(new ObjectId().toHexString())
+                    .user(pick(users))
+                    .content("Comment " + i)
+                    .replies(replies)
+                    .build());
+        }
+        mongoTemplate.insert(Discussion.builder().post(postId).comments(thread).build());
+    }
+
+    // One contest whose participating groups split the users between them, plus past submissions
+    public Contest seedContest(List<String> users, int groups, int submissions) {
+        List<Group> seededGroups = new ArrayList<>(groups);
+        for (int g = 0; g < groups; g++) {
+            seededGroups.add(Group.builder()
+                    .id(new ObjectId().toHexString())
+                    .name("Group " + g)
+                    .description("Benchmark group")
+                    .creator(users.get(g % users.size()))
+                    .inviteCode("BENCH" + g)
+                    .build());
+        }
+        for (int i = 0; i < users.size(); i++) {
+            Group group = seededGroups.get(i % groups);
+            group.getMembers().add(Group.GroupMember.builder().user(users.get(i)).build());
+        }
+        insert(seededGroups, Group.class);
+
+        BulkOperations memberships = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        for (int i = 0; i < users.size(); i++) {
+            memberships.updateOne(new Query(Criteria.where("_id").is(users.get(i))),
+                    new Update().addToSet("groups", seededGroups.get(i % groups).getId()));
+        }
+        memberships.execute();
+
+        Contest contest = Contest.builder()
+                .title("Benchmark contest")
+                .description("Seeded")
+                .creator(users.get(0))
+                .participatingGroups(seededGroups.stream()
+                        .map(group -> Contest.ParticipatingGroup.builder().group(group.getId()).score(0).build())
+                        .toList())
+                .problems(List.of(Contest.Problem.builder()
+                        .title("A + B")
+                        .description("Print the sum of two integers")
+                        .points(100)
+                        .testCases(List.of(testCase("1 2", "3"), testCase("10 20", "30")))
+                        .build()))
+                .startTime(LocalDateTime.now().minusMinutes(5))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .duration(24 * 60)
+                .status("ongoing")
+                .build();
+        contest = mongoTemplate.insert(contest);
+
+        List<Submission> seeded = new ArrayList<>(submissions);
+        LocalDateTime start = contest.getStartTime();
+        for (int i = 0; i < submissions; i++) {
+            int index = i % users.size();
+            boolean accepted = random.nextInt(4) == 0;
+            seeded.add(Submission.builder()
+                    .contest(contest.getId())
+                    .user(users.get(index))
+                    .group(seededGroups.get(index % groups).getId())
+                    .problem(0)
+                    .code(SUM_SOLUTION)
+                    .language("python")
+                    .score(accepted ? 100 : 0)
+                    .verdict(accepted ? Verdict.ACCEPTED.name() : Verdict.WRONG_ANSWER.name())
+                    .passedTests(accepted ? 2 : 0)
+                    .totalTests(2)
+                    .submittedAt(start.plusSeconds(i))
+                    .build());
+        }
+        insert(seeded, Submission.class);
+        return contest;
+    }
+
+    private Contest.TestCase testCase(String input, String output) {
+        return Contest.TestCase.builder()
+                .inputRef(testDataStore.store(input).getId())
+                .outputRef(testDataStore.store(output).getId())
+                .build();
+    }
+
+    private <T> void insert(List<T> documents, Class<T> type) {
+        for (int from = 0; from < documents.size(); from += BATCH_SIZE) {
+            mongoTemplate.insert(documents.subList(from, Math.min(from + BATCH_SIZE, documents.size())), type);
+        }
+    }
+
+    private String pick(List<String> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+}
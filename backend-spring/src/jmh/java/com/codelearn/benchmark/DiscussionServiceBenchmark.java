@@ -0,0 +1,50 @@
+package com.codelearn.benchmark;
+
+import com.codelearn.model.Discussion;
+import com.codelearn.service.DiscussionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+
+// populateDiscussionDetails is private, so it is measured through getDiscussionByPostId
+@State(Scope.Benchmark)
+public class DiscussionServiceBenchmark extends BaseBenchmark {
+
+    @Param({"1000"})
+    public int users;
+
+    @Param({"10", "200"})
+    public int commentsPerPost;
+
+    @Param({"2"})
+    public int repliesPerComment;
+
+    private BenchmarkApplication application;
+    private DiscussionService discussionService;
+    private String postId;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start();
+        DatasetSeeder seeder = application.seeder();
+        List<String> userIds = seeder.seedUsers(users);
+        postId = seeder.seedPosts(userIds, 1).get(0);
+        seeder.seedDiscussion(postId, userIds, commentsPerPost, repliesPerComment);
+        discussionService = application.getBean(DiscussionService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public Discussion discussionWithDetails() {
+        return discussionService.getDiscussionByPostId(postId);
+    }
+}
@@ -0,0 +1,35 @@
+package com.codelearn.benchmark;
+
+import com.codelearn.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// Runs on every authenticated request, so it is measured without the application context around it
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark extends BaseBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret",
+                "benchmarkSecretKeyForJWTTokenGenerationWhichShouldBeVeryLongAndSecure2024");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpiration", 604800000L);
+        token = jwtTokenProvider.generateToken("64b7f0c2e4b0a1a2b3c4d5e6");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUserIdFromToken() {
+        return jwtTokenProvider.getUserIdFromToken(token);
+    }
+}
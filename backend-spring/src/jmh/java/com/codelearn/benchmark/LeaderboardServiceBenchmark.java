@@ -0,0 +1,41 @@
+package com.codelearn.benchmark;
+
+import com.codelearn.dto.response.LeaderboardResponse;
+import com.codelearn.service.LeaderboardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class LeaderboardServiceBenchmark extends BaseBenchmark {
+
+    @Param({"1000", "100000"})
+    public int users;
+
+    private BenchmarkApplication application;
+    private LeaderboardService leaderboardService;
+    private String userId;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start();
+        List<String> userIds = application.seeder().seedUsers(users);
+        userId = userIds.get(userIds.size() / 2);
+        leaderboardService = application.getBean(LeaderboardService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public LeaderboardResponse globalLeaderboard() {
+        return leaderboardService.getGlobalLeaderboard(userId);
+    }
+}
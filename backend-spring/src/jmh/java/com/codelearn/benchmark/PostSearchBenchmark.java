@@ -0,0 +1,72 @@
+package com.codelearn.benchmark;
+
+import com.codelearn.dto.response.CursorPage;
+import com.codelearn.dto.response.PostSummaryResponse;
+import com.codelearn.model.Post;
+import com.codelearn.search.PostSearchEngine;
+import com.codelearn.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+// The search engine against the case-insensitive $regex over title and problem it replaced
+@State(Scope.Benchmark)
+public class PostSearchBenchmark extends BaseBenchmark {
+
+    @Param({"1000"})
+    public int users;
+
+    @Param({"1000", "10000"})
+    public int posts;
+
+    @Param({"binary search", "window"})
+    public String query;
+
+    private BenchmarkApplication application;
+    private PostService postService;
+    private MongoTemplate mongoTemplate;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start();
+        DatasetSeeder seeder = application.seeder();
+        seeder.seedPosts(seeder.seedUsers(users), posts);
+        postService = application.getBean(PostService.class);
+        mongoTemplate = application.getBean(MongoTemplate.class);
+
+        // Seeded straight into Mongo, so the posts have to be handed to the engine like PostService would
+        PostSearchEngine engine = application.getBean(PostSearchEngine.class);
+        mongoTemplate.findAll(Post.class).forEach(engine::index);
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public CursorPage<PostSummaryResponse> engine() {
+        return postService.getAllPosts(null, null, query, null, null, 20);
+    }
+
+    @Benchmark
+    public List<Post> regex() {
+        String pattern = Pattern.quote(query);
+        Query regex = new Query(new Criteria().orOperator(
+                Criteria.where("title").regex(pattern, "i"),
+                Criteria.where("problem").regex(pattern, "i")))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .limit(20);
+        return mongoTemplate.find(regex, Post.class);
+    }
+}
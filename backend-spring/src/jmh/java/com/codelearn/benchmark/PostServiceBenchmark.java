@@ -0,0 +1,92 @@
+package com.codelearn.benchmark;
+
+import com.codelearn.dto.response.CursorPage;
+import com.codelearn.dto.response.PostSummaryResponse;
+import com.codelearn.model.Post;
+import com.codelearn.service.HotPostRanking;
+import com.codelearn.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Random;
+
+@State(Scope.Benchmark)
+public class PostServiceBenchmark extends BaseBenchmark {
+
+    @Param({"1000"})
+    public int users;
+
+    @Param({"1000", "10000"})
+    public int posts;
+
+    private BenchmarkApplication application;
+    private PostService postService;
+    private String deepCursor;
+
+    @Setup
+    public void setUp() {
+        application = BenchmarkApplication.start();
+        DatasetSeeder seeder = application.seeder();
+        List<String> postIds = seeder.seedPosts(seeder.seedUsers(users), posts);
+        postService = application.getBean(PostService.class);
+
+        // Engagement spread over every post, stored as hot scores and loaded into the ranking before measuring.
+        // The flusher's update pipeline is not supported by the in-memory Mongo server.
+        BulkOperations scores = application.getBean(MongoTemplate.class)
+                .bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        Random random = new Random(42);
+        for (String postId : postIds) {
+            scores.updateOne(new Query(Criteria.where("_id").is(postId)),
+                    new Update().set("hotScore", Math.log(1 + random.nextInt(100)) / Math.log(2)));
+        }
+        scores.execute();
+        application.getBean(HotPostRanking.class).load();
+
+        CursorPage<PostSummaryResponse> page = postService.getAllPosts(null, null, null, "latest", null, 100);
+        for (int i = 0; i < posts / 200 && page.getNextCursor() != null; i++) {
+            page = postService.getAllPosts(null, null, null, "latest", page.getNextCursor(), 100);
+        }
+        deepCursor = page.getNextCursor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public CursorPage<PostSummaryResponse> latest() {
+        return postService.getAllPosts(null, null, null, "latest", null, null);
+    }
+
+    // Page fetch from the middle of the feed costs the same as the first page
+    @Benchmark
+    public CursorPage<PostSummaryResponse> latestDeepPage() {
+        return postService.getAllPosts(null, null, null, "latest", deepCursor, null);
+    }
+
+    @Benchmark
+    public CursorPage<PostSummaryResponse> popular() {
+        return postService.getAllPosts(null, null, null, "popular", null, null);
+    }
+
+    @Benchmark
+    public CursorPage<PostSummaryResponse> mostViewed() {
+        return postService.getAllPosts(null, null, null, "views", null, null);
+    }
+
+    @Benchmark
+    public CursorPage<PostSummaryResponse> byLanguage() {
+        return postService.getAllPosts("java", null, null, null, null, null);
+    }
+}
@@ -0,0 +1,84 @@
+package com.codelearn.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Compares the indexes declared on the mapped documents with the ones that exist in the database and
+// logs any that are missing, e.g. when auto-index-creation is off or an index build failed
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndexReport implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+        int declared = 0;
+        int missing = 0;
+
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(org.springframework.data.mongodb.core.mapping.Document.class)) {
+                continue;
+            }
+            String collection = entity.getCollection();
+            Set<String> existing = mongoTemplate.indexOps(collection).getIndexInfo().stream()
+                    .map(IndexReport::keyOf)
+                    .collect(Collectors.toSet());
+
+            for (IndexDefinition definition : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                declared++;
+                String key = keyOf(definition.getIndexKeys());
+                if (!existing.contains(key)) {
+                    missing++;
+                    log.warn("Missing index on {}: {}", collection, definition.getIndexKeys().toJson());
+                }
+            }
+        }
+
+        if (missing > 0) {
+            log.warn("{} of {} declared indexes are missing", missing, declared);
+        } else {
+            log.info("All {} declared indexes are present", declared);
+        }
+    }
+
+    private static String keyOf(Document keys) {
+        return keys.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+
+    private static String keyOf(IndexInfo info) {
+        return info.getIndexFields().stream()
+                .map(field -> field.getKey() + ":" + direction(field))
+                .collect(Collectors.joining(","));
+    }
+
+    private static String direction(IndexField field) {
+        if (field.isHashed()) {
+            return "hashed";
+        }
+        if (field.isText()) {
+            return "text";
+        }
+        return field.getDirection() == Sort.Direction.DESC ? "-1" : "1";
+    }
+}
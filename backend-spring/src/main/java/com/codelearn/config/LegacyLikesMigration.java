@@ -0,0 +1,121 @@
+package com.codelearn.config;
+
+import com.codelearn.model.Like;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Moves the likes arrays that older builds embedded in posts and comments into the likes collection,
+// leaving a likeCount behind. Runs before the web server accepts requests, and every write touches only a
+// document or array element that still has its legacy likes, so nothing written concurrently is replaced.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacyLikesMigration {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        int posts = migratePosts();
+        int comments = migrateComments();
+        if (posts > 0 || comments > 0) {
+            log.info("Moved embedded likes of {} posts and {} comments to the likes collection", posts, comments);
+        }
+    }
+
+    private int migratePosts() {
+        Query query = new Query(Criteria.where("likes").exists(true));
+        query.fields().include("likes");
+
+        int migrated = 0;
+        try (Stream<Document> posts = mongoTemplate.stream(query, Document.class, "posts")) {
+            for (Document post : (Iterable<Document>) posts::iterator) {
+                String postId = post.getObjectId("_id").toHexString();
+                List<String> likes = post.getList("likes", String.class, List.of());
+                insertLikes(Like.POST, postId, likes);
+                // $inc keeps likes counted by a newer build since the post was read
+                mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(post.get("_id")).and("likes").exists(true)),
+                        new Update().inc("likeCount", likes.size()).unset("likes"), "posts");
+                migrated++;
+            }
+        }
+        mongoTemplate.updateMulti(new Query(Criteria.where("likeCount").exists(false)),
+                new Update().set("likeCount", 0), "posts");
+        return migrated;
+    }
+
+    private int migrateComments() {
+        Query query = new Query(Criteria.where("comments.likes").exists(true));
+        query.fields().include("comments");
+
+        int migrated = 0;
+        try (Stream<Document> discussions = mongoTemplate.stream(query, Document.class, "discussions")) {
+            for (Document discussion : (Iterable<Document>) discussions::iterator) {
+                for (Document comment : discussion.getList("comments", Document.class, List.of())) {
+                    if (!comment.containsKey("likes")) {
+                        continue;
+                    }
+                    List<String> likes = comment.getList("likes", String.class, List.of());
+                    insertLikes(Like.COMMENT, commentId(comment), likes);
+                    migrateComment(discussion.get("_id"), comment.get("_id"), likes.size());
+                    migrated++;
+                }
+            }
+        }
+        return migrated;
+    }
+
+    // Updates the one comment in place, so comments and replies added since the discussion was read are kept
+    private void migrateComment(Object discussionId, Object commentId, int likeCount) {
+        Query query = new Query(Criteria.where("_id").is(discussionId).and("comments")
+                .elemMatch(Criteria.where("_id").is(commentId).and("likes").exists(true)));
+        Update update = new Update()
+                .inc("comments.$[c].likeCount", likeCount)
+                .unset("comments.$[c].likes")
+                .filterArray(Criteria.where("c._id").is(commentId));
+        mongoTemplate.updateFirst(query, update, "discussions");
+    }
+
+    private void insertLikes(String targetType, String target, List<String> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Like> likes = new ArrayList<>();
+        for (String user : users) {
+            likes.add(Like.builder().targetType(targetType).target(target).user(user).createdAt(now).build());
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Like.class).insert(likes).execute();
+        } catch (BulkOperationException e) {
+            // Duplicates were already moved by an earlier, interrupted run; anything else must stop the migration
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+    }
+
+    // Comment ids are mapped to _id and stored as ObjectIds when they look like one
+    private static String commentId(Document comment) {
+        Object id = comment.get("_id");
+        return id instanceof ObjectId ? ((ObjectId) id).toHexString() : String.valueOf(id);
+    }
+}
@@ -0,0 +1,92 @@
+package com.codelearn.config;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.InsertManyOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// Moves submissions that older builds embedded in contest documents into the submissions collection
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacySubmissionMigration implements ApplicationRunner {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query query = new Query(Criteria.where("submissions").exists(true));
+        query.fields().include("submissions");
+
+        int migrated = 0;
+        for (Document contest : mongoTemplate.find(query, Document.class, "contests")) {
+            Object contestId = contest.get("_id");
+            List<Document> embedded = contest.getList("submissions", Document.class, List.of());
+            List<Document> submissions = new ArrayList<>();
+            for (int index = 0; index < embedded.size(); index++) {
+                Document submission = new Document(embedded.get(index)).append("contest", contestId.toString());
+                if (!(submission.get("_id") instanceof ObjectId)) {
+                    submission.put("_id", migratedId(contestId, index, submission.getDate("submittedAt")));
+                }
+                submissions.add(submission);
+            }
+
+            if (!submissions.isEmpty()) {
+                insertIgnoringDuplicates(submissions);
+                migrated += submissions.size();
+            }
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(contestId)),
+                    new Update().unset("submissions"), "contests");
+        }
+
+        if (migrated > 0) {
+            log.info("Moved {} embedded contest submissions to the submissions collection", migrated);
+        }
+    }
+
+    // Submissions copied by an earlier run that stopped before unsetting the array keep their ids, so
+    // copying them again only hits duplicate keys
+    private void insertIgnoringDuplicates(List<Document> submissions) {
+        try {
+            mongoTemplate.getCollection("submissions").insertMany(submissions, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            boolean onlyDuplicates = e.getWriteConcernError() == null
+                    && e.getWriteErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+        }
+    }
+
+    // Same contest and position, same id; the timestamp part keeps ids ordered by submission time
+    private static ObjectId migratedId(Object contestId, int index, Date submittedAt) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256")
+                    .digest((contestId + ":" + index).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        int seconds = (int) ((submittedAt != null ? submittedAt.getTime() : 0) / 1000);
+        return new ObjectId(ByteBuffer.allocate(12).putInt(seconds).put(digest, 0, 8).array());
+    }
+}
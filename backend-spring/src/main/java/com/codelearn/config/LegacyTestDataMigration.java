@@ -0,0 +1,79 @@
+package com.codelearn.config;
+
+import com.codelearn.judge.TestDataStore;
+import com.codelearn.model.Contest;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Moves test-case payloads that older builds stored inline in contest documents into the test-data store.
+// Runs before the web server accepts requests, and each test case is updated in place only while it still
+// holds the payloads that were read, so edits to a contest are never overwritten.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacyTestDataMigration {
+
+    private final MongoTemplate mongoTemplate;
+    private final TestDataStore testDataStore;
+
+    @PostConstruct
+    public void migrate() {
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("problems.testCases.input").exists(true),
+                Criteria.where("problems.testCases.output").exists(true)));
+        query.fields().include("problems");
+
+        int migrated = 0;
+        try (Stream<Contest> contests = mongoTemplate.stream(query, Contest.class)) {
+            for (Contest contest : (Iterable<Contest>) contests::iterator) {
+                List<Contest.Problem> problems = contest.getProblems() != null ? contest.getProblems() : List.of();
+                for (int p = 0; p < problems.size(); p++) {
+                    List<Contest.TestCase> testCases = problems.get(p).getTestCases();
+                    if (testCases == null) {
+                        continue;
+                    }
+                    for (int t = 0; t < testCases.size(); t++) {
+                        if (migrate(contest.getId(), "problems." + p + ".testCases." + t, testCases.get(t))) {
+                            migrated++;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (migrated > 0) {
+            log.info("Moved {} inline test cases to the test-data store", migrated);
+        }
+    }
+
+    // False when the test case has nothing inline, or the contest was edited since it was read
+    private boolean migrate(String contestId, String path, Contest.TestCase testCase) {
+        if (testCase.getInput() == null && testCase.getOutput() == null) {
+            return false;
+        }
+        Criteria criteria = Criteria.where("_id").is(contestId)
+                .and(path + ".input").is(testCase.getInput())
+                .and(path + ".output").is(testCase.getOutput());
+        Update update = new Update().unset(path + ".input").unset(path + ".output");
+        if (testCase.getInputRef() == null) {
+            TestDataStore.Stored input = testDataStore.store(testCase.getInput());
+            criteria.and(path + ".inputRef").is(null);
+            update.set(path + ".inputRef", input.getId()).set(path + ".inputSize", input.getSize());
+        }
+        if (testCase.getOutputRef() == null) {
+            TestDataStore.Stored output = testDataStore.store(testCase.getOutput());
+            criteria.and(path + ".outputRef").is(null);
+            update.set(path + ".outputRef", output.getId()).set(path + ".outputSize", output.getSize());
+        }
+        return mongoTemplate.updateFirst(new Query(criteria), update, Contest.class).getModifiedCount() > 0;
+    }
+}
@@ -39,8 +39,10 @@ public class SecurityConfig {
                         // Public endpoints
                         .requestMatchers("/").permitAll()
                         .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/posts/liked", "/api/discussions/*/comments/liked").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/posts/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/discussions/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/contests/*/scoreboard", "/api/contests/*/scoreboard/stream").permitAll()
                         // Swagger/OpenAPI
                         .requestMatchers("/swagger-ui/**", "/api-docs/**", "/swagger-ui.html").permitAll()
                         // All other requests need authentication
@@ -2,20 +2,32 @@ package com.codelearn.controller;
 
 import com.codelearn.dto.request.CreateContestRequest;
 import com.codelearn.dto.request.SubmitSolutionRequest;
+import com.codelearn.dto.response.ContestSummaryResponse;
+import com.codelearn.dto.response.CursorPage;
 import com.codelearn.dto.response.MessageResponse;
+import com.codelearn.dto.response.PageResponse;
+import com.codelearn.dto.response.ScoreboardResponse;
 import com.codelearn.dto.response.SubmissionResponse;
+import com.codelearn.dto.response.TestDataResponse;
+import com.codelearn.judge.Verdict;
 import com.codelearn.model.Contest;
+import com.codelearn.model.Submission;
 import com.codelearn.service.ContestService;
+import com.codelearn.service.ScoreboardService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/contests")
@@ -24,11 +36,15 @@ import java.util.List;
 public class ContestController {
 
     private final ContestService contestService;
+    private final ScoreboardService scoreboardService;
 
     @GetMapping
-    @Operation(summary = "Get all contests", description = "Retrieves all contests")
-    public ResponseEntity<List<Contest>> getAllContests() {
-        return ResponseEntity.ok(contestService.getAllContests());
+    @Operation(summary = "Get contests", description = "Retrieves contest summaries, newest start time first, one cursor page at a time")
+    public ResponseEntity<CursorPage<ContestSummaryResponse>> getContests(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(contestService.getContestSummaries(status, cursor, limit));
     }
 
     @GetMapping("/{id}")
@@ -45,19 +61,74 @@ public class ContestController {
         return ResponseEntity.ok(contestService.createContest(userDetails.getUsername(), request));
     }
 
+    @PostMapping(value = "/test-data", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Upload test data", description = "Streams a raw test-case payload into storage and returns its id for use as inputRef or outputRef")
+    public ResponseEntity<TestDataResponse> uploadTestData(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(contestService.uploadTestData(request.getInputStream()));
+    }
+
     @PostMapping("/{id}/submit")
-    @Operation(summary = "Submit solution", description = "Submits a solution to a contest problem")
+    @Operation(summary = "Submit solution", description = "Submits a solution to a contest problem; answers 202 with a submission id when judging is queued")
     public ResponseEntity<SubmissionResponse> submitSolution(
             @AuthenticationPrincipal UserDetails userDetails,
             @PathVariable String id,
             @Valid @RequestBody SubmitSolutionRequest request) {
-        return ResponseEntity.ok(contestService.submitSolution(userDetails.getUsername(), id, request));
+        SubmissionResponse response = contestService.submitSolution(userDetails.getUsername(), id, request);
+        // Queued submissions are judged in the background
+        HttpStatus status = response.getVerdict() == Verdict.PENDING ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @GetMapping("/{id}/submissions")
+    @Operation(summary = "Get contest submissions", description = "Retrieves a page of submissions, newest first, optionally filtered by user and problem")
+    public ResponseEntity<PageResponse<Submission>> getSubmissions(
+            @PathVariable String id,
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) Integer problem,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(contestService.getSubmissions(id, user, problem, page, size));
+    }
+
+    @GetMapping("/{id}/submissions/me")
+    @Operation(summary = "Get my submissions", description = "Retrieves a page of the current user's submissions to a contest")
+    public ResponseEntity<PageResponse<Submission>> getMySubmissions(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String id,
+            @RequestParam(required = false) Integer problem,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(contestService.getSubmissions(id, userDetails.getUsername(), problem, page, size));
+    }
+
+    @GetMapping("/{id}/submissions/{submissionId}")
+    @Operation(summary = "Get submission by ID", description = "Retrieves a submission including its code (author or contest creator only)")
+    public ResponseEntity<Submission> getSubmission(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String id,
+            @PathVariable String submissionId) {
+        return ResponseEntity.ok(contestService.getSubmission(userDetails.getUsername(), id, submissionId));
+    }
+
+    @GetMapping(value = "/{id}/submissions/{submissionId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream submission verdict", description = "Server-Sent Events: a single verdict event once the submission is judged")
+    public SseEmitter streamVerdict(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String id,
+            @PathVariable String submissionId) {
+        return contestService.subscribeToVerdict(userDetails.getUsername(), id, submissionId);
+    }
+
+    @GetMapping("/{id}/scoreboard")
+    @Operation(summary = "Get contest scoreboard", description = "Retrieves live standings ordered by score, then penalty time")
+    public ResponseEntity<ScoreboardResponse> getScoreboard(@PathVariable String id) {
+        return ResponseEntity.ok(scoreboardService.getScoreboard(id));
     }
 
-    @PutMapping("/{id}/status")
-    @Operation(summary = "Update contest status", description = "Updates the status of a contest based on time")
-    public ResponseEntity<Contest> updateContestStatus(@PathVariable String id) {
-        return ResponseEntity.ok(contestService.updateContestStatus(id));
+    @GetMapping(value = "/{id}/scoreboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream contest scoreboard", description = "Server-Sent Events: a snapshot, then the standings whose rank changed")
+    public SseEmitter streamScoreboard(@PathVariable String id) {
+        return scoreboardService.subscribe(id);
     }
 
     @DeleteMapping("/{id}")
@@ -13,6 +13,8 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Set;
+
 @RestController
 @RequestMapping("/api/discussions")
 @RequiredArgsConstructor
@@ -56,4 +58,12 @@ public class DiscussionController {
         return ResponseEntity.ok(discussionService.likeComment(
                 userDetails.getUsername(), postId, commentId));
     }
+
+    @GetMapping("/{postId}/comments/liked")
+    @Operation(summary = "Get liked comments", description = "Returns the ids of the post's comments liked by the current user")
+    public ResponseEntity<Set<String>> getLikedComments(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable String postId) {
+        return ResponseEntity.ok(discussionService.getLikedComments(userDetails.getUsername(), postId));
+    }
 }
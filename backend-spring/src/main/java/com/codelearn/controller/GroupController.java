@@ -2,6 +2,7 @@ package com.codelearn.controller;
 
 import com.codelearn.dto.request.CreateGroupRequest;
 import com.codelearn.dto.request.JoinGroupRequest;
+import com.codelearn.dto.response.GroupSummaryResponse;
 import com.codelearn.dto.response.MessageResponse;
 import com.codelearn.model.Group;
 import com.codelearn.service.GroupService;
@@ -26,13 +27,13 @@ public class GroupController {
 
     @GetMapping
     @Operation(summary = "Get user's groups", description = "Retrieves all groups the current user is a member of")
-    public ResponseEntity<List<Group>> getUserGroups(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<List<GroupSummaryResponse>> getUserGroups(@AuthenticationPrincipal UserDetails userDetails) {
         return ResponseEntity.ok(groupService.getUserGroups(userDetails.getUsername()));
     }
 
     @GetMapping("/all")
     @Operation(summary = "Get all public groups", description = "Retrieves all public groups")
-    public ResponseEntity<List<Group>> getAllPublicGroups() {
+    public ResponseEntity<List<GroupSummaryResponse>> getAllPublicGroups() {
         return ResponseEntity.ok(groupService.getAllPublicGroups());
     }
 
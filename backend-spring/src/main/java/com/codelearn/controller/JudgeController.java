@@ -0,0 +1,31 @@
+package com.codelearn.controller;
+
+import com.codelearn.dto.response.JudgeStatsResponse;
+import com.codelearn.judge.JudgeService;
+import com.codelearn.service.SubmissionIngestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/judge")
+@RequiredArgsConstructor
+@Tag(name = "Judge", description = "Submission judging status")
+public class JudgeController {
+
+    private final JudgeService judgeService;
+    private final SubmissionIngestionService submissionIngestionService;
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get judge stats", description = "Returns worker utilisation and submission queue depths")
+    public ResponseEntity<JudgeStatsResponse> getStats() {
+        JudgeStatsResponse stats = judgeService.getStats();
+        stats.setIngestionQueueDepth(submissionIngestionService.getQueueDepth());
+        stats.setIngestionQueueCapacity(submissionIngestionService.getQueueCapacity());
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -1,15 +1,21 @@
 package com.codelearn.controller;
 
 import com.codelearn.dto.response.LeaderboardResponse;
+import com.codelearn.dto.response.PercentileResponse;
+import com.codelearn.leaderboard.LeaderboardSnapshot;
+import com.codelearn.leaderboard.LeaderboardWindow;
 import com.codelearn.model.Group;
 import com.codelearn.service.LeaderboardService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -35,6 +41,68 @@ public class LeaderboardController {
         return ResponseEntity.ok(leaderboardService.getGlobalLeaderboard(userDetails.getUsername()));
     }
 
+    @GetMapping("/weekly")
+    @Operation(summary = "Get weekly leaderboard", description = "Ranks coders by points earned this ISO week (UTC) (scope: global, college or department)")
+    public ResponseEntity<LeaderboardResponse> getWeeklyLeaderboard(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "global") String scope) {
+        return ResponseEntity.ok(leaderboardService.getWindowedLeaderboard(
+                userDetails.getUsername(), LeaderboardWindow.WEEKLY, scope));
+    }
+
+    @GetMapping("/monthly")
+    @Operation(summary = "Get monthly leaderboard", description = "Ranks coders by points earned this calendar month (UTC) (scope: global, college or department)")
+    public ResponseEntity<LeaderboardResponse> getMonthlyLeaderboard(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "global") String scope) {
+        return ResponseEntity.ok(leaderboardService.getWindowedLeaderboard(
+                userDetails.getUsername(), LeaderboardWindow.MONTHLY, scope));
+    }
+
+    @GetMapping("/top")
+    @Operation(summary = "Get leaderboard snapshot", description = "Retrieves the cached top coders of a board (scope: global, college or department); honours If-None-Match")
+    public ResponseEntity<byte[]> getTop(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "global") String scope,
+            @RequestParam(required = false) String department,
+            WebRequest request) {
+        LeaderboardSnapshot snapshot = leaderboardService.getTopSnapshot(userDetails.getUsername(), scope, department);
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .lastModified(snapshot.getBuiltAt())
+                .body(snapshot.getJson());
+    }
+
+    @GetMapping("/rank")
+    @Operation(summary = "Get current user's rank", description = "Retrieves the user's live rank on a board (scope: global, college or department)")
+    public ResponseEntity<LeaderboardResponse.CurrentUserRank> getRank(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "global") String scope) {
+        return ResponseEntity.ok(leaderboardService.getRank(userDetails.getUsername(), scope));
+    }
+
+    @GetMapping("/percentile")
+    @Operation(summary = "Get current user's percentile", description = "Retrieves which top percentage of a board the user is in (scope: global, college or department)")
+    public ResponseEntity<PercentileResponse> getPercentile(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "global") String scope) {
+        return ResponseEntity.ok(leaderboardService.getPercentile(userDetails.getUsername(), scope));
+    }
+
+    @GetMapping("/neighbors")
+    @Operation(summary = "Get leaderboard neighbors", description = "Retrieves the coders ranked just above and below the user (scope: global, college or department)")
+    public ResponseEntity<LeaderboardResponse> getNeighbors(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "global") String scope,
+            @RequestParam(defaultValue = "5") int radius) {
+        return ResponseEntity.ok(leaderboardService.getNeighbors(userDetails.getUsername(), scope, radius));
+    }
+
     @GetMapping("/groups")
     @Operation(summary = "Get group leaderboard", description = "Retrieves top performing groups")
     public ResponseEntity<List<Group>> getGroupLeaderboard() {
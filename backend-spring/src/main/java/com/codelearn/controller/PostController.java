@@ -2,7 +2,9 @@ package com.codelearn.controller;
 
 import com.codelearn.dto.request.CreatePostRequest;
 import com.codelearn.dto.request.UpdatePostRequest;
+import com.codelearn.dto.response.CursorPage;
 import com.codelearn.dto.response.MessageResponse;
+import com.codelearn.dto.response.PostSummaryResponse;
 import com.codelearn.model.Post;
 import com.codelearn.service.PostService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,6 +17,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -25,13 +28,23 @@ public class PostController {
     private final PostService postService;
 
     @GetMapping
-    @Operation(summary = "Get all posts", description = "Retrieves all posts with optional filtering and sorting")
-    public ResponseEntity<List<Post>> getAllPosts(
+    @Operation(summary = "Get posts", description = "Retrieves posts with optional filtering and sorting, one cursor page at a time")
+    public ResponseEntity<CursorPage<PostSummaryResponse>> getAllPosts(
             @RequestParam(required = false) String language,
             @RequestParam(required = false) String difficulty,
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) String sortBy) {
-        return ResponseEntity.ok(postService.getAllPosts(language, difficulty, search, sortBy));
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(postService.getAllPosts(language, difficulty, search, sortBy, cursor, limit));
+    }
+
+    @GetMapping("/liked")
+    @Operation(summary = "Get liked posts", description = "Returns which of the given post ids the current user has liked")
+    public ResponseEntity<Set<String>> getLikedPosts(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam List<String> ids) {
+        return ResponseEntity.ok(postService.getLikedPosts(userDetails.getUsername(), ids));
     }
 
     @GetMapping("/{id}")
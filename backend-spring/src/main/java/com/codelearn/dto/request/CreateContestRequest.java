@@ -39,5 +39,7 @@ public class CreateContestRequest {
     public static class TestCaseRequest {
         private String input;
         private String output;
+        private String inputRef; // id from POST /api/contests/test-data, replaces input
+        private String outputRef;
     }
 }
@@ -0,0 +1,23 @@
+package com.codelearn.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContestSummaryResponse {
+    private String id;
+    private String title;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Integer duration;
+    private String status;
+    private Integer groupCount;
+    private Integer problemCount;
+}
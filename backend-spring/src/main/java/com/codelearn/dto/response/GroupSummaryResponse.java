@@ -0,0 +1,26 @@
+package com.codelearn.dto.response;
+
+import com.codelearn.model.Group;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A group as rendered in list cards: counts instead of the member array, no invite code or allow-list
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupSummaryResponse {
+    private String id;
+    private String name;
+    private String description;
+    private String creator;
+    private Integer memberCount;
+    private Integer groupScore;
+    private Boolean isPrivate;
+    private LocalDateTime createdAt;
+    private Group.UserSummary creatorDetails;
+}
@@ -0,0 +1,25 @@
+package com.codelearn.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JudgeStatsResponse {
+    private Integer workers;
+    private Integer activeWorkers;
+    private Integer queuedSubmissions;
+    private Integer queueCapacity;
+    private Integer testParallelism;
+    private Long completedSubmissions;
+    private Long rejectedSubmissions;
+    private Long cacheHits;
+    private Long cacheMisses;
+    private Integer cacheSize;
+    private Integer ingestionQueueDepth;
+    private Integer ingestionQueueCapacity;
+}
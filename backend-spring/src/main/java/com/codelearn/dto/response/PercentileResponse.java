@@ -0,0 +1,17 @@
+package com.codelearn.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PercentileResponse {
+    private String scope;
+    private Long rank; // 1-based; null when the user is not on the board
+    private Long total;
+    private Double topPercent; // "top X%" of the board, rounded up to one decimal
+}
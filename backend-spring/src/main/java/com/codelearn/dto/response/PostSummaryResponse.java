@@ -0,0 +1,29 @@
+package com.codelearn.dto.response;
+
+import com.codelearn.model.Post;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// A post as rendered in feed cards: no code, and only the start of the problem statement
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSummaryResponse {
+    private String id;
+    private String author;
+    private String title;
+    private String problemPreview;
+    private String language;
+    private List<String> tags;
+    private String difficulty;
+    private Integer likeCount;
+    private Integer views;
+    private LocalDateTime createdAt;
+    private Post.UserSummary authorDetails;
+}
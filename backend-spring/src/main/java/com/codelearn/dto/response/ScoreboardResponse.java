@@ -0,0 +1,30 @@
+package com.codelearn.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreboardResponse {
+    private String contestId;
+    private List<Standing> standings;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Standing {
+        private Integer rank;
+        private String group;
+        private String name;
+        private Integer score;
+        private Long penalty; // minutes
+        private Integer accepted;
+    }
+}
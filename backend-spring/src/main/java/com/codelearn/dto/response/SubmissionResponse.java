@@ -1,15 +1,39 @@
 package com.codelearn.dto.response;
 
+import com.codelearn.judge.JudgeResult;
+import com.codelearn.judge.TestResult;
+import com.codelearn.judge.Verdict;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class SubmissionResponse {
+    private String id;
     private String message;
     private Integer score;
+    private Verdict verdict;
+    private Integer passedTests;
+    private Integer totalTests;
+    private String compileOutput;
+    private List<TestResult> tests;
+
+    public static SubmissionResponse judged(String id, int score, JudgeResult result) {
+        return SubmissionResponse.builder()
+                .id(id)
+                .message(result.isAccepted() ? "Submission accepted" : "Submission rejected")
+                .score(score)
+                .verdict(result.getVerdict())
+                .passedTests(result.getPassedTests())
+                .totalTests(result.getTotalTests())
+                .compileOutput(result.getCompileOutput())
+                .tests(result.getTests())
+                .build();
+    }
 }
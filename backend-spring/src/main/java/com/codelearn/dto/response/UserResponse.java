@@ -25,4 +25,5 @@ public class UserResponse {
     private List<String> skills;
     private List<String> groups;
     private LocalDateTime createdAt;
+    private Integer rank; // only set on leaderboard rows
 }
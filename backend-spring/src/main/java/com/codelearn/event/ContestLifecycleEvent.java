@@ -0,0 +1,13 @@
+package com.codelearn.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class ContestLifecycleEvent {
+    private final String contestId;
+    private final String status; // ongoing, completed
+}
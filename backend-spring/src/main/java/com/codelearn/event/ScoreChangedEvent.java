@@ -0,0 +1,16 @@
+package com.codelearn.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class ScoreChangedEvent {
+    private final String userId;
+    private final int points; // delta that was applied
+    private final Integer codingScore; // score after the change
+    private final String college;
+    private final String department;
+}
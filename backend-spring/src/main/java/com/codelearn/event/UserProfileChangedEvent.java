@@ -0,0 +1,18 @@
+package com.codelearn.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// Published when a user registers (previous fields null) or edits their profile
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserProfileChangedEvent {
+    private final String userId;
+    private final Integer codingScore;
+    private final String college;
+    private final String department;
+    private final String previousCollege;
+    private final String previousDepartment;
+}
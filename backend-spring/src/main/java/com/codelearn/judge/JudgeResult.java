@@ -0,0 +1,26 @@
+package com.codelearn.judge;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JudgeResult {
+    private Verdict verdict;
+    private Integer passedTests;
+    private Integer totalTests;
+    private String compileOutput;
+    @Builder.Default
+    private List<TestResult> tests = new ArrayList<>();
+
+    public boolean isAccepted() {
+        return verdict == Verdict.ACCEPTED;
+    }
+}
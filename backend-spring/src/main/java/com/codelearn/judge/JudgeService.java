@@ -0,0 +1,242 @@
+package com.codelearn.judge;
+
+import com.codelearn.dto.response.JudgeStatsResponse;
+import com.codelearn.exception.BadRequestException;
+import com.codelearn.exception.ServiceUnavailableException;
+import com.codelearn.model.Contest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JudgeService {
+
+    private final SandboxRunner sandboxRunner;
+    private final VerdictCache verdictCache;
+    private final TestDataStore testDataStore;
+
+    @Value("${judge.workers}")
+    private int workers;
+
+    @Value("${judge.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${judge.test-parallelism}")
+    private int testParallelism;
+
+    @Value("${judge.time-limit-ms}")
+    private long timeLimitMs;
+
+    @Value("${judge.memory-limit-mb}")
+    private int memoryLimitMb;
+
+    private final AtomicLong completedSubmissions = new AtomicLong();
+    private final AtomicLong rejectedSubmissions = new AtomicLong();
+
+    private ThreadPoolExecutor submissionPool;
+    private ExecutorService testPool;
+
+    @PostConstruct
+    void start() {
+        if (testParallelism <= 0) {
+            testParallelism = Runtime.getRuntime().availableProcessors();
+        }
+        submissionPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads("judge-worker-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        testPool = Executors.newFixedThreadPool(testParallelism, namedThreads("judge-test-"));
+        log.info("Judge started with {} workers, {} parallel test slots, queue capacity {}",
+                workers, testParallelism, queueCapacity);
+    }
+
+    @PreDestroy
+    void stop() {
+        submissionPool.shutdownNow();
+        testPool.shutdownNow();
+    }
+
+    public CompletableFuture<JudgeResult> judge(Contest.Problem problem, String language, String code) {
+        Language lang = Language.fromString(language);
+        if (lang == null) {
+            throw new BadRequestException("Unsupported language: " + language);
+        }
+
+        List<Contest.TestCase> testCases = problem.getTestCases() != null
+                ? List.copyOf(problem.getTestCases())
+                : List.of();
+        if (testCases.isEmpty()) {
+            // Nothing to pass would otherwise read as ACCEPTED
+            log.warn("Refusing to judge a problem without test cases");
+            return CompletableFuture.completedFuture(internalError(0));
+        }
+
+        // Identical resubmissions are answered from the cache without touching the sandbox
+        return verdictCache.getOrJudge(lang, code, testCases, () -> submit(lang, code, testCases));
+    }
+
+    private CompletableFuture<JudgeResult> submit(Language language, String code, List<Contest.TestCase> testCases) {
+        try {
+            return CompletableFuture.supplyAsync(() -> evaluate(language, code, testCases), submissionPool);
+        } catch (RejectedExecutionException e) {
+            rejectedSubmissions.incrementAndGet();
+            throw new ServiceUnavailableException("Judge queue is full, please retry shortly");
+        }
+    }
+
+    public JudgeStatsResponse getStats() {
+        return JudgeStatsResponse.builder()
+                .workers(workers)
+                .activeWorkers(submissionPool.getActiveCount())
+                .queuedSubmissions(submissionPool.getQueue().size())
+                .queueCapacity(queueCapacity)
+                .testParallelism(testParallelism)
+                .completedSubmissions(completedSubmissions.get())
+                .rejectedSubmissions(rejectedSubmissions.get())
+                .cacheHits(verdictCache.getHits())
+                .cacheMisses(verdictCache.getMisses())
+                .cacheSize(verdictCache.size())
+                .build();
+    }
+
+    private JudgeResult evaluate(Language language, String code, List<Contest.TestCase> testCases) {
+        Path workspace = null;
+        List<Future<TestResult>> pending = new ArrayList<>();
+        try {
+            workspace = sandboxRunner.createWorkspace(language, code);
+
+            SandboxRunner.CompileOutcome compile = sandboxRunner.compile(language, workspace);
+            if (!compile.isSuccess()) {
+                return JudgeResult.builder()
+                        .verdict(Verdict.COMPILATION_ERROR)
+                        .passedTests(0)
+                        .totalTests(testCases.size())
+                        .compileOutput(compile.getOutput())
+                        .build();
+            }
+
+            // Test cases of one submission run side by side on the shared test pool
+            Path dir = workspace;
+            for (int i = 0; i < testCases.size(); i++) {
+                int index = i;
+                pending.add(testPool.submit(() -> runTest(language, dir, index, testCases.get(index))));
+            }
+
+            List<TestResult> results = new ArrayList<>();
+            for (Future<TestResult> future : pending) {
+                results.add(future.get());
+            }
+
+            // The first failing test in problem order decides the overall verdict
+            Verdict verdict = results.stream()
+                    .map(TestResult::getVerdict)
+                    .filter(v -> v != Verdict.ACCEPTED)
+                    .findFirst()
+                    .orElse(Verdict.ACCEPTED);
+
+            return JudgeResult.builder()
+                    .verdict(verdict)
+                    .passedTests((int) results.stream().filter(r -> r.getVerdict() == Verdict.ACCEPTED).count())
+                    .totalTests(testCases.size())
+                    .tests(results)
+                    .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return internalError(testCases.size());
+        } catch (Exception e) {
+            log.error("Judging failed", e);
+            return internalError(testCases.size());
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+            if (workspace != null) {
+                sandboxRunner.deleteWorkspace(workspace);
+            }
+            completedSubmissions.incrementAndGet();
+        }
+    }
+
+    private TestResult runTest(Language language, Path dir, int index, Contest.TestCase testCase) throws Exception {
+        Path input = payload(dir, "in-" + index + ".txt", testCase.getInputRef(), testCase.getInput());
+        SandboxRunner.RunOutcome outcome = sandboxRunner.run(
+                language, dir, index, input, timeLimitMs, memoryLimitMb);
+        return TestResult.builder()
+                .index(index)
+                .verdict(classify(outcome, dir, index, testCase))
+                .timeMillis(outcome.getElapsedMillis())
+                .build();
+    }
+
+    private Verdict classify(SandboxRunner.RunOutcome outcome, Path dir, int index, Contest.TestCase testCase)
+            throws IOException {
+        if (outcome.isTimedOut()) {
+            return Verdict.TIME_LIMIT_EXCEEDED;
+        }
+        if (outcome.isOutputLimitExceeded()) {
+            return Verdict.OUTPUT_LIMIT_EXCEEDED;
+        }
+        if (outcome.getExitCode() != 0) {
+            return isOutOfMemory(outcome.getStderr()) ? Verdict.MEMORY_LIMIT_EXCEEDED : Verdict.RUNTIME_ERROR;
+        }
+
+        Path expected = payload(dir, "expected-" + index + ".txt", testCase.getOutputRef(), testCase.getOutput());
+        return OutputComparator.tokensMatch(outcome.getOutputFile(), expected)
+                ? Verdict.ACCEPTED
+                : Verdict.WRONG_ANSWER;
+    }
+
+    // Stored payloads are read from the local test-data cache; test cases saved inline by older builds
+    // are written into the workspace
+    private Path payload(Path dir, String fileName, String ref, String inline) throws IOException {
+        if (ref != null) {
+            return testDataStore.resolve(ref);
+        }
+        return Files.writeString(dir.resolve(fileName), inline != null ? inline : "", StandardCharsets.UTF_8);
+    }
+
+    private boolean isOutOfMemory(String stderr) {
+        return stderr.contains("OutOfMemoryError")
+                || stderr.contains("MemoryError")
+                || stderr.contains("bad_alloc")
+                || stderr.contains("heap out of memory")
+                || stderr.contains("Cannot allocate memory");
+    }
+
+    private JudgeResult internalError(int totalTests) {
+        return JudgeResult.builder()
+                .verdict(Verdict.INTERNAL_ERROR)
+                .passedTests(0)
+                .totalTests(totalTests)
+                .build();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.codelearn.judge;
+
+import java.util.List;
+import java.util.Locale;
+
+public enum Language {
+    JAVA("Main.java",
+            List.of("javac", "-J-Xmx256m", "-encoding", "UTF-8", "Main.java"),
+            List.of("java", "-Xmx{mem}m", "-Xss64m", "-XX:+UseSerialGC", "-cp", ".", "Main"),
+            false),
+    PYTHON("main.py",
+            List.of("python3", "-m", "py_compile", "main.py"),
+            List.of("python3", "main.py"),
+            true),
+    CPP("main.cpp",
+            List.of("g++", "-O2", "-std=c++17", "-o", "main", "main.cpp"),
+            List.of("./main"),
+            true),
+    C("main.c",
+            List.of("gcc", "-O2", "-std=c11", "-o", "main", "main.c", "-lm"),
+            List.of("./main"),
+            true),
+    JAVASCRIPT("main.js",
+            null,
+            List.of("node", "--max-old-space-size={mem}", "main.js"),
+            false);
+
+    private final String sourceFile;
+    private final List<String> compileCommand;
+    private final List<String> runCommand;
+    // JVM and V8 reserve far more address space than they use, so they are
+    // capped through their own heap flags instead of ulimit -v
+    private final boolean addressSpaceLimited;
+
+    Language(String sourceFile, List<String> compileCommand, List<String> runCommand, boolean addressSpaceLimited) {
+        this.sourceFile = sourceFile;
+        this.compileCommand = compileCommand;
+        this.runCommand = runCommand;
+        this.addressSpaceLimited = addressSpaceLimited;
+    }
+
+    public String getSourceFile() {
+        return sourceFile;
+    }
+
+    public List<String> getCompileCommand() {
+        return compileCommand;
+    }
+
+    public List<String> getRunCommand(int memoryLimitMb) {
+        return runCommand.stream()
+                .map(arg -> arg.replace("{mem}", String.valueOf(memoryLimitMb)))
+                .toList();
+    }
+
+    public boolean isAddressSpaceLimited() {
+        return addressSpaceLimited;
+    }
+
+    public static Language fromString(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "java" -> JAVA;
+            case "python", "python3", "py" -> PYTHON;
+            case "cpp", "c++" -> CPP;
+            case "c" -> C;
+            case "javascript", "js", "node" -> JAVASCRIPT;
+            default -> null;
+        };
+    }
+}
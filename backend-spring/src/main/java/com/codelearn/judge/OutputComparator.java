@@ -0,0 +1,59 @@
+package com.codelearn.judge;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Compares program output with the expected answer token by token while streaming both files, so
+// neither side is ever materialized in memory. Any run of whitespace separates tokens.
+public final class OutputComparator {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private OutputComparator() {
+    }
+
+    public static boolean tokensMatch(Path actual, Path expected) throws IOException {
+        try (InputStream a = new BufferedInputStream(Files.newInputStream(actual), BUFFER_SIZE);
+             InputStream e = new BufferedInputStream(Files.newInputStream(expected), BUFFER_SIZE)) {
+            while (true) {
+                int ca = skipWhitespace(a);
+                int ce = skipWhitespace(e);
+                if (ca == -1 || ce == -1) {
+                    return ca == ce;
+                }
+
+                // Walk both tokens in lockstep until either one ends
+                while (true) {
+                    if (ca != ce) {
+                        return false;
+                    }
+                    ca = a.read();
+                    ce = e.read();
+                    boolean actualEnded = ca == -1 || isWhitespace(ca);
+                    boolean expectedEnded = ce == -1 || isWhitespace(ce);
+                    if (actualEnded || expectedEnded) {
+                        if (actualEnded != expectedEnded) {
+                            return false;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static int skipWhitespace(InputStream in) throws IOException {
+        int c = in.read();
+        while (c != -1 && isWhitespace(c)) {
+            c = in.read();
+        }
+        return c;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f' || c == 0x0B;
+    }
+}
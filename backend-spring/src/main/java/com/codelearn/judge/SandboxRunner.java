@@ -0,0 +1,246 @@
+package com.codelearn.judge;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Runs compilers and submitted programs. With judge.isolation=namespaces (the default) every process runs in
+// fresh user, mount, PID, network, IPC and UTS namespaces. Nothing is reachable over the network, the root
+// file system is read-only, other workspaces and the test-data cache are hidden, and every capability is
+// dropped before exec. CPU time, file size, address space and process count are capped with rlimits, so a
+// runaway program is stopped by the kernel instead of after it exits. The process cap only holds when the
+// judge does not run as root.
+@Slf4j
+@Component
+public class SandboxRunner {
+
+    private static final int MAX_DIAGNOSTIC_BYTES = 2048;
+    private static final long MAX_COMPILE_FILE_BYTES = 64L * 1024 * 1024;
+
+    // Exit statuses of a process killed by SIGXCPU / SIGXFSZ
+    private static final int CPU_LIMIT_EXIT = 128 + 24;
+    private static final int FILE_LIMIT_EXIT = 128 + 25;
+
+    // Runs inside the new namespaces as the mapped root, before the submission is exec'd without capabilities:
+    // $1 judge work dir, $2 this workspace (also the working directory), $3 test-data cache
+    private static final String JAIL_SETUP = String.join("\n",
+            "set -e",
+            "mount -t tmpfs -o size=64k,mode=755 tmpfs \"$1\"",
+            "mkdir \"$2\"",
+            "mount --no-canonicalize --bind . \"$2\"",
+            "mkdir -p \"$3\"",
+            "mount -t tmpfs -o size=64k tmpfs \"$3\"",
+            "mount -t tmpfs -o size=64k tmpfs /dev/shm",
+            "mount -o remount,bind,ro /",
+            "cd \"$2\"",
+            "shift 3",
+            "exec \"$@\"");
+
+    @Value("${judge.work-dir}")
+    private String workDir;
+
+    @Value("${judge.compile-timeout-ms}")
+    private long compileTimeoutMs;
+
+    @Value("${judge.max-output-kb}")
+    private long maxOutputKb;
+
+    @Value("${judge.test-data-dir}")
+    private String testDataDir;
+
+    @Value("${judge.isolation}")
+    private String isolation;
+
+    @Value("${judge.max-processes}")
+    private int maxProcesses;
+
+    // Refuses to start with isolation configured but unavailable, rather than judging unconfined
+    @PostConstruct
+    void checkIsolation() throws IOException, InterruptedException {
+        if (!isIsolated()) {
+            log.warn("Judge isolation is disabled; submitted code runs with the server's privileges");
+            return;
+        }
+        Path probe = Files.createDirectories(Path.of(workDir)).resolve("probe-" + UUID.randomUUID());
+        Files.createDirectory(probe);
+        try {
+            Process process = newProcess(sandboxed(List.of("true"), probe, MAX_DIAGNOSTIC_BYTES, 5, null), probe)
+                    .redirectErrorStream(true)
+                    .start();
+            String output = new String(process.getInputStream().readNBytes(MAX_DIAGNOSTIC_BYTES), StandardCharsets.UTF_8);
+            if (!process.waitFor(10, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                kill(process);
+                throw new IllegalStateException("Judge isolation (unshare, setpriv, prlimit) is unavailable: "
+                        + output.trim() + ". Set JUDGE_ISOLATION=none to judge without it.");
+            }
+        } finally {
+            deleteWorkspace(probe);
+        }
+    }
+
+    public Path createWorkspace(Language language, String code) throws IOException {
+        Path dir = Files.createDirectories(Path.of(workDir)).resolve(UUID.randomUUID().toString());
+        Files.createDirectory(dir);
+        Files.writeString(dir.resolve(language.getSourceFile()), code, StandardCharsets.UTF_8);
+        return dir;
+    }
+
+    public void deleteWorkspace(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            log.warn("Could not clean judge workspace {}", dir, e);
+        }
+    }
+
+    public CompileOutcome compile(Language language, Path dir) throws IOException, InterruptedException {
+        if (language.getCompileCommand() == null) {
+            return new CompileOutcome(true, "");
+        }
+
+        File log = dir.resolve("compile.log").toFile();
+        // Compilers run several threads, so CPU time is only a backstop behind the wall-clock timeout
+        long cpuSeconds = 4 * TimeUnit.MILLISECONDS.toSeconds(compileTimeoutMs) + 1;
+        List<String> command = sandboxed(language.getCompileCommand(), dir, MAX_COMPILE_FILE_BYTES, cpuSeconds, null);
+        Process process = newProcess(command, dir)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+
+        if (!process.waitFor(compileTimeoutMs, TimeUnit.MILLISECONDS)) {
+            kill(process);
+            return new CompileOutcome(false, "Compilation timed out");
+        }
+        return new CompileOutcome(process.exitValue() == 0, readDiagnostics(log.toPath()));
+    }
+
+    public RunOutcome run(Language language, Path dir, int testIndex, Path inputFile,
+                          long timeLimitMs, int memoryLimitMb) throws IOException, InterruptedException {
+        Path outputFile = dir.resolve("out-" + testIndex + ".txt");
+        Path errorFile = dir.resolve("err-" + testIndex + ".txt");
+
+        // One byte over the output cap is allowed to be written, so hitting the cap is distinguishable
+        long maxOutputBytes = maxOutputKb * 1024;
+        long cpuSeconds = TimeUnit.MILLISECONDS.toSeconds(timeLimitMs) + 1;
+        List<String> command = sandboxed(language.getRunCommand(memoryLimitMb), dir, maxOutputBytes + 1, cpuSeconds,
+                language.isAddressSpaceLimited() ? memoryLimitMb : null);
+
+        long start = System.nanoTime();
+        Process process = newProcess(command, dir)
+                .redirectInput(inputFile.toFile())
+                .redirectOutput(outputFile.toFile())
+                .redirectError(errorFile.toFile())
+                .start();
+
+        boolean finished = process.waitFor(timeLimitMs, TimeUnit.MILLISECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (!finished) {
+            kill(process);
+            return new RunOutcome(-1, true, false, outputFile, readDiagnostics(errorFile), elapsedMillis);
+        }
+
+        int exitCode = process.exitValue();
+        boolean outputExceeded = exitCode == FILE_LIMIT_EXIT || Files.size(outputFile) > maxOutputBytes;
+        return new RunOutcome(exitCode, exitCode == CPU_LIMIT_EXIT, outputExceeded, outputFile,
+                readDiagnostics(errorFile), elapsedMillis);
+    }
+
+    private boolean isIsolated() {
+        return "namespaces".equals(isolation);
+    }
+
+    // Wraps a command in the namespace jail and rlimits, or in plain shell ulimits without isolation
+    private List<String> sandboxed(List<String> command, Path dir, long maxFileBytes, long cpuSeconds,
+                                   Integer addressSpaceMb) {
+        List<String> wrapped = new ArrayList<>();
+        if (!isIsolated()) {
+            // POSIX ulimit -f counts 512-byte blocks
+            StringBuilder limits = new StringBuilder("ulimit -f " + (maxFileBytes + 511) / 512)
+                    .append(" && ulimit -t ").append(cpuSeconds);
+            if (addressSpaceMb != null) {
+                limits.append(" && ulimit -v ").append(addressSpaceMb * 1024L);
+            }
+            wrapped.addAll(List.of("/bin/sh", "-c", limits + " && exec \"$0\" \"$@\""));
+            wrapped.addAll(command);
+            return wrapped;
+        }
+
+        wrapped.addAll(List.of("unshare", "--user", "--map-root-user", "--mount", "--pid", "--fork", "--mount-proc",
+                "--net", "--ipc", "--uts", "--kill-child"));
+        wrapped.addAll(List.of("/bin/sh", "-c", JAIL_SETUP, "jail",
+                Path.of(workDir).toAbsolutePath().toString(),
+                dir.toAbsolutePath().toString(),
+                Path.of(testDataDir).toAbsolutePath().toString()));
+        wrapped.addAll(List.of("setpriv", "--no-new-privs", "--inh-caps=-all", "--bounding-set=-all", "--"));
+        wrapped.addAll(List.of("prlimit", "--fsize=" + maxFileBytes, "--cpu=" + cpuSeconds,
+                "--nproc=" + maxProcesses));
+        if (addressSpaceMb != null) {
+            wrapped.add("--as=" + addressSpaceMb * 1024L * 1024);
+        }
+        wrapped.add("--");
+        wrapped.addAll(command);
+        return wrapped;
+    }
+
+    private ProcessBuilder newProcess(List<String> command, Path dir) {
+        ProcessBuilder builder = new ProcessBuilder(command).directory(dir.toFile());
+        // Submitted code gets a minimal environment rooted in its own workspace
+        Map<String, String> env = builder.environment();
+        String path = env.get("PATH");
+        env.clear();
+        env.put("PATH", path != null ? path : "/usr/local/bin:/usr/bin:/bin");
+        env.put("HOME", dir.toString());
+        env.put("TMPDIR", dir.toString());
+        env.put("LANG", "C.UTF-8");
+        return builder;
+    }
+
+    private void kill(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private String readDiagnostics(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return "";
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return new String(in.readNBytes(MAX_DIAGNOSTIC_BYTES), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CompileOutcome {
+        private final boolean success;
+        private final String output;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RunOutcome {
+        private final int exitCode;
+        private final boolean timedOut;
+        private final boolean outputLimitExceeded;
+        private final Path outputFile;
+        private final String stderr;
+        private final long elapsedMillis;
+    }
+}
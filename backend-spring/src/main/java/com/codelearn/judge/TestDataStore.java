@@ -0,0 +1,158 @@
+package com.codelearn.judge;
+
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import com.mongodb.client.model.Filters;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// Content-addressed test-case payloads: stored once in GridFS under their SHA-256 and mirrored into a
+// local directory the judge redirects stdin from and compares output against
+@Slf4j
+@Component
+public class TestDataStore {
+
+    private static final String BUCKET = "testdata";
+    private static final Pattern ID = Pattern.compile("[0-9a-f]{64}");
+
+    private final GridFSBucket bucket;
+    private final Path cacheDir;
+
+    public TestDataStore(MongoDatabaseFactory databaseFactory,
+                         @Value("${judge.test-data-dir}") String cacheDir) {
+        this.bucket = GridFSBuckets.create(databaseFactory.getMongoDatabase(), BUCKET);
+        this.cacheDir = Path.of(cacheDir);
+    }
+
+    public Stored store(String content) {
+        return store(new ByteArrayInputStream(
+                (content != null ? content : "").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Spools the stream to a temporary file while hashing it, so payloads of any size are never held in memory
+    public Stored store(InputStream content) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(createCacheDir(), "upload-", ".tmp");
+            MessageDigest digest = sha256();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                size = content.transferTo(out);
+            }
+            String id = HexFormat.of().formatHex(digest.digest());
+
+            if (!exists(id)) {
+                try (InputStream in = Files.newInputStream(temp)) {
+                    bucket.uploadFromStream(id, in, new GridFSUploadOptions().chunkSizeBytes(1024 * 1024));
+                }
+            }
+            moveIntoCache(temp, id);
+            temp = null;
+            return new Stored(id, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store test data", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    public boolean exists(String id) {
+        return find(id).isPresent();
+    }
+
+    public Optional<Stored> find(String id) {
+        if (!isValidId(id)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(bucket.find(Filters.eq("filename", id)).first())
+                .map(file -> new Stored(id, file.getLength()));
+    }
+
+    // Local copy of a payload, downloaded from GridFS on first use
+    public Path resolve(String id) throws IOException {
+        if (!isValidId(id)) {
+            throw new IllegalArgumentException("Invalid test data id: " + id);
+        }
+        Path cached = cacheDir.resolve(id);
+        if (Files.exists(cached)) {
+            return cached;
+        }
+
+        Path temp = Files.createTempFile(createCacheDir(), "download-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                bucket.downloadToStream(id, out);
+            }
+            moveIntoCache(temp, id);
+            temp = null;
+            return cached;
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    public static boolean isValidId(String id) {
+        return id != null && ID.matcher(id).matches();
+    }
+
+    public static String hash(String content) {
+        byte[] bytes = (content != null ? content : "").getBytes(StandardCharsets.UTF_8);
+        return HexFormat.of().formatHex(sha256().digest(bytes));
+    }
+
+    private Path createCacheDir() throws IOException {
+        return Files.createDirectories(cacheDir);
+    }
+
+    // Payloads are immutable, so whichever concurrent writer lands first wins
+    private void moveIntoCache(Path temp, String id) throws IOException {
+        Files.move(temp, cacheDir.resolve(id), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Stored {
+        private final String id;
+        private final long size;
+    }
+}
@@ -0,0 +1,16 @@
+package com.codelearn.judge;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TestResult {
+    private Integer index;
+    private Verdict verdict;
+    private Long timeMillis;
+}
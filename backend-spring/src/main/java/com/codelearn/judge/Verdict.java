@@ -0,0 +1,13 @@
+package com.codelearn.judge;
+
+public enum Verdict {
+    PENDING,
+    ACCEPTED,
+    WRONG_ANSWER,
+    TIME_LIMIT_EXCEEDED,
+    MEMORY_LIMIT_EXCEEDED,
+    OUTPUT_LIMIT_EXCEEDED,
+    RUNTIME_ERROR,
+    COMPILATION_ERROR,
+    INTERNAL_ERROR
+}
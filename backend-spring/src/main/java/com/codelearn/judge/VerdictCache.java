@@ -0,0 +1,146 @@
+package com.codelearn.judge;
+
+import com.codelearn.model.Contest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Size-bounded LRU of judged results keyed by language, normalized source and a fingerprint of the
+// problem's test cases. Changing a problem's test cases changes its fingerprint, so stale entries are
+// never hit again and simply age out.
+@Component
+public class VerdictCache {
+
+    private final int capacity;
+    private final Map<String, CompletableFuture<JudgeResult>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public VerdictCache(@Value("${judge.cache-size}") int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<JudgeResult>> eldest) {
+                return size() > VerdictCache.this.capacity;
+            }
+        };
+    }
+
+    // Concurrent duplicates share the same future, so only one of them reaches the judge
+    public CompletableFuture<JudgeResult> getOrJudge(Language language, String code, List<Contest.TestCase> testCases,
+                                                     Supplier<CompletableFuture<JudgeResult>> judge) {
+        if (capacity <= 0) {
+            return judge.get();
+        }
+
+        String key = key(language, code, testCases);
+        CompletableFuture<JudgeResult> result;
+        synchronized (entries) {
+            result = entries.get(key);
+            if (result != null) {
+                hits.incrementAndGet();
+                return result;
+            }
+            misses.incrementAndGet();
+            // Reserve the slot before judging so a concurrent duplicate waits on this future
+            result = new CompletableFuture<>();
+            entries.put(key, result);
+        }
+
+        CompletableFuture<JudgeResult> judged;
+        try {
+            judged = judge.get();
+        } catch (RuntimeException e) {
+            remove(key, result);
+            result.completeExceptionally(e);
+            throw e;
+        }
+
+        CompletableFuture<JudgeResult> slot = result;
+        judged.whenComplete((judgeResult, error) -> {
+            if (error != null || !isCacheable(judgeResult)) {
+                remove(key, slot);
+            }
+            if (error != null) {
+                slot.completeExceptionally(error);
+            } else {
+                slot.complete(judgeResult);
+            }
+        });
+        return result;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void remove(String key, CompletableFuture<JudgeResult> expected) {
+        synchronized (entries) {
+            entries.remove(key, expected);
+        }
+    }
+
+    // Time limits and internal errors depend on host load, so those runs may deserve a second chance
+    private static boolean isCacheable(JudgeResult result) {
+        return result.getVerdict() != Verdict.INTERNAL_ERROR
+                && result.getVerdict() != Verdict.TIME_LIMIT_EXCEEDED;
+    }
+
+    private static String key(Language language, String code, List<Contest.TestCase> testCases) {
+        MessageDigest digest = sha256();
+        update(digest, language.name());
+        update(digest, normalize(code));
+        // Stored and inline payloads fingerprint the same way, by the SHA-256 of their content
+        for (Contest.TestCase testCase : testCases) {
+            update(digest, contentId(testCase.getInputRef(), testCase.getInput()));
+            update(digest, contentId(testCase.getOutputRef(), testCase.getOutput()));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String contentId(String ref, String inline) {
+        return ref != null ? ref : TestDataStore.hash(inline);
+    }
+
+    // Length-prefix every field so distinct field boundaries never hash the same
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.US_ASCII));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    // Line endings and whitespace at the end of the file never change what a program does
+    private static String normalize(String code) {
+        return code.replace("\r\n", "\n").stripTrailing();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
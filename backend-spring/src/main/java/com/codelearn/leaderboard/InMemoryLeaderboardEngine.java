@@ -0,0 +1,113 @@
+package com.codelearn.leaderboard;
+
+import com.codelearn.util.IndexedSkipList;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Single-node engine backed by order-statistic skip lists; boards are rebuilt from Mongo on startup
+@Component
+@ConditionalOnProperty(name = "leaderboard.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLeaderboardEngine implements LeaderboardEngine {
+
+    private static final Comparator<LeaderboardEntry> ORDER = Comparator
+            .comparingLong(LeaderboardEntry::getScore).reversed()
+            .thenComparing(LeaderboardEntry::getMember, Comparator.reverseOrder());
+
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+
+    @Override
+    public void setScore(String board, String member, long score) {
+        board(board).set(member, score);
+    }
+
+    @Override
+    public void incrementScore(String board, String member, long delta) {
+        board(board).increment(member, delta);
+    }
+
+    @Override
+    public void remove(String board, String member) {
+        Board existing = boards.get(board);
+        if (existing != null) {
+            existing.remove(member);
+        }
+    }
+
+    @Override
+    public long rank(String board, String member) {
+        Board existing = boards.get(board);
+        return existing != null ? existing.rank(member) : -1;
+    }
+
+    @Override
+    public List<LeaderboardEntry> range(String board, long offset, int limit) {
+        Board existing = boards.get(board);
+        return existing != null ? existing.range(offset, limit) : List.of();
+    }
+
+    @Override
+    public long size(String board) {
+        Board existing = boards.get(board);
+        return existing != null ? existing.size() : 0;
+    }
+
+    @Override
+    public void replace(String board, Map<String, Long> scores) {
+        Board replacement = new Board();
+        scores.forEach(replacement::set);
+        boards.put(board, replacement);
+    }
+
+    @Override
+    public void delete(String board) {
+        boards.remove(board);
+    }
+
+    private Board board(String board) {
+        return boards.computeIfAbsent(board, key -> new Board());
+    }
+
+    private static final class Board {
+        private final Map<String, Long> scores = new HashMap<>();
+        private final IndexedSkipList<LeaderboardEntry> ordered = new IndexedSkipList<>(ORDER);
+
+        synchronized void set(String member, long score) {
+            Long previous = scores.put(member, score);
+            if (previous != null) {
+                ordered.remove(new LeaderboardEntry(member, previous));
+            }
+            ordered.add(new LeaderboardEntry(member, score));
+        }
+
+        synchronized void increment(String member, long delta) {
+            set(member, scores.getOrDefault(member, 0L) + delta);
+        }
+
+        synchronized void remove(String member) {
+            Long previous = scores.remove(member);
+            if (previous != null) {
+                ordered.remove(new LeaderboardEntry(member, previous));
+            }
+        }
+
+        synchronized long rank(String member) {
+            Long score = scores.get(member);
+            return score != null ? ordered.rank(new LeaderboardEntry(member, score)) : -1;
+        }
+
+        synchronized List<LeaderboardEntry> range(long offset, int limit) {
+            int from = (int) Math.min(offset, Integer.MAX_VALUE);
+            return ordered.range(from, (int) Math.min((long) from + limit, Integer.MAX_VALUE));
+        }
+
+        synchronized long size() {
+            return ordered.size();
+        }
+    }
+}
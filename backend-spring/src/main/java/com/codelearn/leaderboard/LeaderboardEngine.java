@@ -0,0 +1,28 @@
+package com.codelearn.leaderboard;
+
+import java.util.List;
+import java.util.Map;
+
+// Sorted-set leaderboards: highest score first, equal scores in reverse member order (as Redis ZREVRANGE).
+// Rank and range lookups are O(log n) in the board size.
+public interface LeaderboardEngine {
+
+    void setScore(String board, String member, long score);
+
+    // Adds to the member's score, treating an absent member as 0
+    void incrementScore(String board, String member, long delta);
+
+    void remove(String board, String member);
+
+    // Zero-based position from the top, or -1 if the member is not on the board
+    long rank(String board, String member);
+
+    List<LeaderboardEntry> range(String board, long offset, int limit);
+
+    long size(String board);
+
+    // Swaps the whole board for the given scores
+    void replace(String board, Map<String, Long> scores);
+
+    void delete(String board);
+}
@@ -0,0 +1,15 @@
+package com.codelearn.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class LeaderboardEntry {
+    private final String member;
+    private final long score;
+}
@@ -0,0 +1,87 @@
+package com.codelearn.leaderboard;
+
+import com.codelearn.event.ScoreChangedEvent;
+import com.codelearn.event.UserProfileChangedEvent;
+import com.codelearn.model.User;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Keeps the global, college and department boards in step with users' coding scores
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LeaderboardIndexer {
+
+    private final LeaderboardEngine leaderboardEngine;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${leaderboard.rebuild-on-startup}")
+    private boolean rebuildOnStartup;
+
+    // Runs before the web server accepts requests, so no score change can be lost behind the rebuild
+    @PostConstruct
+    void start() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        Query query = new Query();
+        query.fields().include("codingScore", "college", "department");
+
+        Map<String, Map<String, Long>> boards = new HashMap<>();
+        int users = 0;
+        try (Stream<User> stream = mongoTemplate.stream(query, User.class)) {
+            for (User user : (Iterable<User>) stream::iterator) {
+                long score = user.getCodingScore() != null ? user.getCodingScore() : 0;
+                for (String board : LeaderboardKeys.boardsFor(user.getCollege(), user.getDepartment())) {
+                    boards.computeIfAbsent(board, key -> new HashMap<>()).put(user.getId(), score);
+                }
+                users++;
+            }
+        }
+
+        boards.forEach(leaderboardEngine::replace);
+        log.info("Rebuilt {} leaderboards from {} users", boards.size(), users);
+    }
+
+    // Increments commute, so concurrent awards land correctly whatever order their events arrive in
+    @EventListener
+    public void onScoreChanged(ScoreChangedEvent event) {
+        for (String board : LeaderboardKeys.boardsFor(event.getCollege(), event.getDepartment())) {
+            leaderboardEngine.incrementScore(board, event.getUserId(), event.getPoints());
+        }
+    }
+
+    @EventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        List<String> current = LeaderboardKeys.boardsFor(event.getCollege(), event.getDepartment());
+        List<String> previous = event.getPreviousCollege() != null
+                ? LeaderboardKeys.boardsFor(event.getPreviousCollege(), event.getPreviousDepartment())
+                : List.of();
+
+        for (String board : previous) {
+            if (!current.contains(board)) {
+                leaderboardEngine.remove(board, event.getUserId());
+            }
+        }
+        long score = event.getCodingScore() != null ? event.getCodingScore() : 0;
+        for (String board : current) {
+            if (!previous.contains(board)) {
+                leaderboardEngine.setScore(board, event.getUserId(), score);
+            }
+        }
+    }
+}
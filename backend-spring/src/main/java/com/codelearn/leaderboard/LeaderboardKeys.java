@@ -0,0 +1,40 @@
+package com.codelearn.leaderboard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class LeaderboardKeys {
+
+    private LeaderboardKeys() {
+    }
+
+    public static String global() {
+        return "global";
+    }
+
+    public static String college(String college) {
+        return "college:" + college;
+    }
+
+    public static String department(String college, String department) {
+        return "department:" + college + "|" + department;
+    }
+
+    // The same board restricted to the points earned in one window bucket, e.g. "weekly:2026-W42:global"
+    public static String windowed(LeaderboardWindow window, String bucket, String board) {
+        return window.getName() + ":" + bucket + ":" + board;
+    }
+
+    // Every board a user with this college and department belongs on
+    public static List<String> boardsFor(String college, String department) {
+        List<String> boards = new ArrayList<>(3);
+        boards.add(global());
+        if (college != null) {
+            boards.add(college(college));
+            if (department != null) {
+                boards.add(department(college, department));
+            }
+        }
+        return boards;
+    }
+}
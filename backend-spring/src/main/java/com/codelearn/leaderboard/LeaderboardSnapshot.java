@@ -0,0 +1,19 @@
+package com.codelearn.leaderboard;
+
+import com.codelearn.dto.response.UserResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+// Immutable top-of-board view shared by every reader until the next refresh
+@Getter
+@AllArgsConstructor
+public class LeaderboardSnapshot {
+    private final String board;
+    private final List<UserResponse> rows;
+    private final byte[] json; // rows pre-serialized, served as-is
+    private final String etag;
+    private final Instant builtAt;
+}
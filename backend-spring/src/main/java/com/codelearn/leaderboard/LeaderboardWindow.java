@@ -0,0 +1,77 @@
+package com.codelearn.leaderboard;
+
+import lombok.Getter;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.IsoFields;
+
+// Calendar periods that points are bucketed into. Periods are UTC: ISO weeks starting on Monday and
+// calendar months.
+@Getter
+public enum LeaderboardWindow {
+    WEEKLY("weekly") {
+        @Override
+        LocalDate start(LocalDate day) {
+            return day.with(DayOfWeek.MONDAY);
+        }
+
+        @Override
+        LocalDate next(LocalDate start) {
+            return start.plusWeeks(1);
+        }
+
+        @Override
+        String label(LocalDate start) {
+            return String.format("%d-W%02d",
+                    start.get(IsoFields.WEEK_BASED_YEAR), start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+        }
+    },
+    MONTHLY("monthly") {
+        @Override
+        LocalDate start(LocalDate day) {
+            return day.withDayOfMonth(1);
+        }
+
+        @Override
+        LocalDate next(LocalDate start) {
+            return start.plusMonths(1);
+        }
+
+        @Override
+        String label(LocalDate start) {
+            return String.format("%d-%02d", start.getYear(), start.getMonthValue());
+        }
+    };
+
+    private final String name;
+
+    LeaderboardWindow(String name) {
+        this.name = name;
+    }
+
+    abstract LocalDate start(LocalDate day);
+
+    abstract LocalDate next(LocalDate start);
+
+    abstract String label(LocalDate start);
+
+    public String bucket(Instant at) {
+        return label(start(day(at)));
+    }
+
+    public String previousBucket(Instant at) {
+        return label(start(start(day(at)).minusDays(1)));
+    }
+
+    // Buckets outlive their period by one more period, so the previous standings stay readable for a while
+    public Instant expiry(Instant at) {
+        return next(next(start(day(at)))).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private static LocalDate day(Instant at) {
+        return LocalDate.ofInstant(at, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,107 @@
+package com.codelearn.leaderboard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Shared engine on Redis sorted sets, so every application node reads the same ranks
+@Component
+@ConditionalOnProperty(name = "leaderboard.engine", havingValue = "redis")
+public class RedisLeaderboardEngine implements LeaderboardEngine {
+
+    private static final int REPLACE_BATCH_SIZE = 1000;
+
+    private final StringRedisTemplate redis;
+    private final String keyPrefix;
+
+    public RedisLeaderboardEngine(StringRedisTemplate redis,
+                                  @Value("${leaderboard.redis.key-prefix}") String keyPrefix) {
+        this.redis = redis;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public void setScore(String board, String member, long score) {
+        redis.opsForZSet().add(key(board), member, score);
+    }
+
+    @Override
+    public void incrementScore(String board, String member, long delta) {
+        redis.opsForZSet().incrementScore(key(board), member, delta);
+    }
+
+    @Override
+    public void remove(String board, String member) {
+        redis.opsForZSet().remove(key(board), member);
+    }
+
+    @Override
+    public long rank(String board, String member) {
+        Long rank = redis.opsForZSet().reverseRank(key(board), member);
+        return rank != null ? rank : -1;
+    }
+
+    @Override
+    public List<LeaderboardEntry> range(String board, long offset, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                redis.opsForZSet().reverseRangeWithScores(key(board), offset, offset + limit - 1);
+        List<LeaderboardEntry> entries = new ArrayList<>(tuples != null ? tuples.size() : 0);
+        if (tuples != null) {
+            for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                double score = tuple.getScore() != null ? tuple.getScore() : 0;
+                entries.add(new LeaderboardEntry(tuple.getValue(), (long) score));
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public long size(String board) {
+        Long size = redis.opsForZSet().zCard(key(board));
+        return size != null ? size : 0;
+    }
+
+    // Builds the new board under a temporary key and renames it over the old one in a single step
+    @Override
+    public void replace(String board, Map<String, Long> scores) {
+        if (scores.isEmpty()) {
+            redis.delete(key(board));
+            return;
+        }
+
+        String staging = key(board) + ":rebuild:" + UUID.randomUUID();
+        Set<ZSetOperations.TypedTuple<String>> batch = new HashSet<>();
+        for (Map.Entry<String, Long> entry : scores.entrySet()) {
+            batch.add(ZSetOperations.TypedTuple.of(entry.getKey(), entry.getValue().doubleValue()));
+            if (batch.size() == REPLACE_BATCH_SIZE) {
+                redis.opsForZSet().add(staging, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            redis.opsForZSet().add(staging, batch);
+        }
+        redis.rename(staging, key(board));
+    }
+
+    @Override
+    public void delete(String board) {
+        redis.delete(key(board));
+    }
+
+    private String key(String board) {
+        return keyPrefix + board;
+    }
+}
@@ -0,0 +1,185 @@
+package com.codelearn.leaderboard;
+
+import com.codelearn.event.ScoreChangedEvent;
+import com.codelearn.event.UserProfileChangedEvent;
+import com.codelearn.model.ScoreBucket;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Maintains weekly and monthly boards. Each award is added to the user's current bucket in score_buckets
+// and to the bucket's boards, so a window is never recomputed from history. When a period ends its boards
+// are dropped and its bucket documents are left for the TTL index to remove.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WindowedLeaderboardIndexer {
+
+    private static final long ROLLOVER_CHECK_SECONDS = 60;
+
+    private final LeaderboardEngine leaderboardEngine;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${leaderboard.rebuild-on-startup}")
+    private boolean rebuildOnStartup;
+
+    // Bucket each window's boards were last built for, so a rollover is noticed once
+    private final Map<LeaderboardWindow, String> currentBuckets = new EnumMap<>(LeaderboardWindow.class);
+
+    private final ScheduledExecutorService rollover = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "leaderboard-windows");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        Instant now = Instant.now();
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            currentBuckets.put(window, window.bucket(now));
+            if (rebuildOnStartup) {
+                rebuild(window, window.bucket(now));
+                dropBoards(window, window.previousBucket(now));
+            }
+        }
+        rollover.scheduleWithFixedDelay(this::checkRollover,
+                ROLLOVER_CHECK_SECONDS, ROLLOVER_CHECK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        rollover.shutdownNow();
+    }
+
+    public void rebuild(LeaderboardWindow window, String bucket) {
+        Query query = new Query(Criteria.where("window").is(window.getName()).and("bucket").is(bucket));
+        query.fields().include("user", "points", "college", "department");
+
+        Map<String, Map<String, Long>> boards = new HashMap<>();
+        try (Stream<ScoreBucket> stream = mongoTemplate.stream(query, ScoreBucket.class)) {
+            stream.forEach(entry -> {
+                for (String board : boardsFor(window, bucket, entry.getCollege(), entry.getDepartment())) {
+                    boards.computeIfAbsent(board, key -> new HashMap<>()).put(entry.getUser(), points(entry));
+                }
+            });
+        }
+        boards.forEach(leaderboardEngine::replace);
+        log.info("Rebuilt {} {} leaderboards for {}", boards.size(), window.getName(), bucket);
+    }
+
+    @EventListener
+    public void onScoreChanged(ScoreChangedEvent event) {
+        Instant now = Instant.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ScoreBucket.class);
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            String bucket = window.bucket(now);
+            bulk.upsert(new Query(Criteria.where("_id").is(bucketId(window, bucket, event.getUserId()))), new Update()
+                    .setOnInsert("user", event.getUserId())
+                    .setOnInsert("window", window.getName())
+                    .setOnInsert("bucket", bucket)
+                    .set("college", event.getCollege())
+                    .set("department", event.getDepartment())
+                    .set("expiresAt", window.expiry(now))
+                    .inc("points", (long) event.getPoints()));
+        }
+        bulk.execute();
+
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            for (String board : boardsFor(window, window.bucket(now), event.getCollege(), event.getDepartment())) {
+                leaderboardEngine.incrementScore(board, event.getUserId(), event.getPoints());
+            }
+        }
+    }
+
+    // Only users who already scored in the current period sit on its boards and need to move
+    @EventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        if (event.getPreviousCollege() == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            String bucket = window.bucket(now);
+            ScoreBucket entry = mongoTemplate.findAndModify(
+                    new Query(Criteria.where("_id").is(bucketId(window, bucket, event.getUserId()))),
+                    new Update().set("college", event.getCollege()).set("department", event.getDepartment()),
+                    ScoreBucket.class);
+            if (entry == null) {
+                continue;
+            }
+
+            List<String> current = boardsFor(window, bucket, event.getCollege(), event.getDepartment());
+            for (String board : boardsFor(window, bucket, event.getPreviousCollege(), event.getPreviousDepartment())) {
+                if (!current.contains(board)) {
+                    leaderboardEngine.remove(board, event.getUserId());
+                }
+            }
+            for (String board : current) {
+                leaderboardEngine.setScore(board, event.getUserId(), points(entry));
+            }
+        }
+    }
+
+    private void checkRollover() {
+        try {
+            Instant now = Instant.now();
+            for (LeaderboardWindow window : LeaderboardWindow.values()) {
+                String bucket = window.bucket(now);
+                String previous = currentBuckets.put(window, bucket);
+                if (previous != null && !previous.equals(bucket)) {
+                    dropBoards(window, previous);
+                    log.info("Rolled {} leaderboards over from {} to {}", window.getName(), previous, bucket);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Leaderboard window rollover failed", e);
+        }
+    }
+
+    // The boards to drop are derived from the bucket documents, so boards left by a previous run are found too
+    private void dropBoards(LeaderboardWindow window, String bucket) {
+        Query query = new Query(Criteria.where("window").is(window.getName()).and("bucket").is(bucket));
+        query.fields().include("college", "department");
+
+        Set<String> boards = new HashSet<>();
+        try (Stream<ScoreBucket> stream = mongoTemplate.stream(query, ScoreBucket.class)) {
+            stream.forEach(entry -> boards.addAll(boardsFor(window, bucket, entry.getCollege(), entry.getDepartment())));
+        }
+        boards.forEach(leaderboardEngine::delete);
+    }
+
+    private static List<String> boardsFor(LeaderboardWindow window, String bucket, String college, String department) {
+        return LeaderboardKeys.boardsFor(college, department).stream()
+                .map(board -> LeaderboardKeys.windowed(window, bucket, board))
+                .toList();
+    }
+
+    private static String bucketId(LeaderboardWindow window, String bucket, String userId) {
+        return window.getName() + ":" + bucket + ":" + userId;
+    }
+
+    private static long points(ScoreBucket entry) {
+        return entry.getPoints() != null ? entry.getPoints() : 0;
+    }
+}
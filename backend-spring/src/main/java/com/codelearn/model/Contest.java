@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -17,6 +19,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "contests")
+@CompoundIndex(name = "startTime_id", def = "{ 'startTime': -1, '_id': -1 }")
 public class Contest {
     
     @Id
@@ -40,12 +43,10 @@ public class Contest {
     
     private Integer duration; // in minutes
     
+    @Indexed
     @Builder.Default
     private String status = "upcoming"; // upcoming, ongoing, completed
     
-    @Builder.Default
-    private List<Submission> submissions = new ArrayList<>();
-    
     @CreatedDate
     private LocalDateTime createdAt;
     
@@ -60,6 +61,8 @@ public class Contest {
         private String group;
         @Builder.Default
         private Integer score = 0;
+        @Builder.Default
+        private List<Integer> solved = new ArrayList<>(); // problem indexes already scored for this group
         private GroupSummary groupDetails;
     }
     
@@ -81,24 +84,13 @@ public class Contest {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class TestCase {
+        // Inline payloads are only kept by contests created before test data moved to GridFS
         private String input;
         private String output;
-    }
-    
-    @Data
-    @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
-    public static class Submission {
-        private String user;
-        private String group;
-        private Integer problem;
-        private String code;
-        private String language;
-        private Integer score;
-        private LocalDateTime submittedAt;
-        private UserSummary userDetails;
-        private GroupSummary groupDetails;
+        private String inputRef;
+        private String outputRef;
+        private Long inputSize;
+        private Long outputSize;
     }
     
     @Data
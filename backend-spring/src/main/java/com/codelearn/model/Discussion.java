@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -22,6 +23,7 @@ public class Discussion {
     @Id
     private String id;
     
+    @Indexed(unique = true)
     private String post;
     
     @Builder.Default
@@ -43,7 +45,7 @@ public class Discussion {
         @Builder.Default
         private String language = "";
         @Builder.Default
-        private List<String> likes = new ArrayList<>();
+        private Integer likeCount = 0; // likes themselves live in the likes collection
         @Builder.Default
         private List<Reply> replies = new ArrayList<>();
         @Builder.Default
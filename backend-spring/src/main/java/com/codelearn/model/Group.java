@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -18,6 +20,11 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "groups")
+@CompoundIndexes({
+        @CompoundIndex(name = "members_user", def = "{ 'members.user': 1 }"),
+        @CompoundIndex(name = "groupScore", def = "{ 'groupScore': -1 }"),
+        @CompoundIndex(name = "isPrivate_createdAt", def = "{ 'isPrivate': 1, 'createdAt': -1 }")
+})
 public class Group {
     
     @Id
@@ -50,6 +57,7 @@ public class Group {
     // Transient fields for populated data
     private UserSummary creatorDetails;
     private List<GroupMemberDetails> memberDetails;
+    private Integer memberCount;
     
     @Data
     @Builder
@@ -0,0 +1,38 @@
+package com.codelearn.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// One user's like of a post or comment. The unique index makes liking a set operation; the liked document
+// only carries a likeCount.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "likes")
+@CompoundIndex(name = "targetType_target_user", def = "{ 'targetType': 1, 'target': 1, 'user': 1 }", unique = true)
+public class Like {
+
+    public static final String POST = "post";
+    public static final String COMMENT = "comment";
+
+    @Id
+    private String id;
+
+    private String targetType; // post or comment
+
+    private String target;
+
+    private String user;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+}
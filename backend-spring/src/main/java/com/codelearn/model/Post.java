@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -17,6 +19,16 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "posts")
+@CompoundIndexes({
+        @CompoundIndex(name = "createdAt_id", def = "{ 'createdAt': -1, '_id': -1 }"),
+        @CompoundIndex(name = "views_likeCount_id", def = "{ 'views': -1, 'likeCount': -1, '_id': -1 }"),
+        @CompoundIndex(name = "language_createdAt_id", def = "{ 'language': 1, 'createdAt': -1, '_id': -1 }"),
+        @CompoundIndex(name = "difficulty_createdAt_id", def = "{ 'difficulty': 1, 'createdAt': -1, '_id': -1 }"),
+        @CompoundIndex(name = "language_difficulty_createdAt_id",
+                def = "{ 'language': 1, 'difficulty': 1, 'createdAt': -1, '_id': -1 }"),
+        @CompoundIndex(name = "author", def = "{ 'author': 1 }"),
+        @CompoundIndex(name = "hotScore", def = "{ 'hotScore': -1 }")
+})
 public class Post {
     
     @Id
@@ -39,16 +51,19 @@ public class Post {
     private String difficulty = "Medium";
     
     @Builder.Default
-    private List<String> likes = new ArrayList<>();
+    private Integer likeCount = 0; // likes themselves live in the likes collection
     
     @Builder.Default
     private Integer views = 0;
     
+    private Double hotScore; // written only by HotPostRanking
+    
     @CreatedDate
     private LocalDateTime createdAt;
     
     // Transient field for populated author data
     private UserSummary authorDetails;
+    private Boolean likedByMe;
     
     @Data
     @Builder
@@ -0,0 +1,40 @@
+package com.codelearn.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Points a user earned within one leaderboard window bucket, e.g. the week 2026-W42
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "score_buckets")
+@CompoundIndex(name = "window_bucket", def = "{ 'window': 1, 'bucket': 1 }")
+public class ScoreBucket {
+
+    @Id
+    private String id; // window:bucket:user
+
+    private String user;
+
+    private String window;
+
+    private String bucket;
+
+    private String college;
+
+    private String department;
+
+    private Long points;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+}
@@ -0,0 +1,44 @@
+package com.codelearn.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// One entry of the append-only score ledger. The id names the action that earned the points
+// (e.g. "post-like:<postId>:<userId>"), so recording the same action twice is a no-op.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "score_events")
+@CompoundIndexes({
+        @CompoundIndex(name = "unapplied_createdAt", def = "{ 'createdAt': 1 }", partialFilter = "{ 'applied': false }"),
+        @CompoundIndex(name = "unapplied_batch", def = "{ 'batch': 1 }", partialFilter = "{ 'applied': false }")
+})
+public class ScoreEvent {
+
+    @Id
+    private String id;
+
+    private String user;
+
+    private Integer points;
+
+    private String reason; // post, post-like, comment, reply, comment-like, contest, baseline
+
+    private Instant createdAt;
+
+    @Builder.Default
+    private Boolean applied = false;
+
+    private String batch; // aggregation batch that claimed the event
+
+    private Instant claimedAt;
+}
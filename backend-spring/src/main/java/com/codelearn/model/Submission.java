@@ -0,0 +1,75 @@
+package com.codelearn.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "submissions")
+@CompoundIndexes({
+        @CompoundIndex(name = "contest_submittedAt", def = "{ 'contest': 1, 'submittedAt': -1 }"),
+        @CompoundIndex(name = "contest_user_problem_submittedAt",
+                def = "{ 'contest': 1, 'user': 1, 'problem': 1, 'submittedAt': -1 }"),
+        @CompoundIndex(name = "contest_problem_submittedAt", def = "{ 'contest': 1, 'problem': 1, 'submittedAt': -1 }"),
+        @CompoundIndex(name = "pending", def = "{ 'verdict': 1 }", partialFilter = "{ 'verdict': 'PENDING' }")
+})
+public class Submission {
+    
+    @Id
+    private String id;
+    
+    private String contest;
+    
+    private String user;
+    
+    private String group;
+    
+    private Integer problem;
+    
+    private String code;
+    
+    private String language;
+    
+    private Integer score;
+    
+    private String verdict; // PENDING until judged
+    
+    private Integer passedTests;
+    
+    private Integer totalTests;
+    
+    private LocalDateTime submittedAt;
+    
+    // Transient fields
+    private UserSummary userDetails;
+    private GroupSummary groupDetails;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserSummary {
+        private String id;
+        private String name;
+        private String email;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GroupSummary {
+        private String id;
+        private String name;
+    }
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
@@ -19,6 +21,12 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "users")
+@CompoundIndexes({
+        @CompoundIndex(name = "codingScore", def = "{ 'codingScore': -1 }"),
+        @CompoundIndex(name = "college_codingScore", def = "{ 'college': 1, 'codingScore': -1 }"),
+        @CompoundIndex(name = "college_department_codingScore",
+                def = "{ 'college': 1, 'department': 1, 'codingScore': -1 }")
+})
 public class User {
     
     @Id
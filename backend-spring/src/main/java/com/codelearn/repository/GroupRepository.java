@@ -1,23 +1,40 @@
 package com.codelearn.repository;
 
+import com.codelearn.dto.response.GroupSummaryResponse;
 import com.codelearn.model.Group;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface GroupRepository extends MongoRepository<Group, String> {
     
-    @Query("{ 'members.user': ?0 }")
-    List<Group> findByMemberUserId(String userId);
+    // List cards: the member array is reduced to its size on the server
+    @Aggregation(pipeline = {
+            "{ $match: { 'members.user': ?0 } }",
+            "{ $project: { name: 1, description: 1, creator: 1, groupScore: 1, isPrivate: 1, createdAt: 1, "
+                    + "memberCount: { $size: { $ifNull: ['$members', []] } } } }"
+    })
+    List<GroupSummaryResponse> findSummaryResponsesByMemberUserId(String userId);
     
-    List<Group> findByIsPrivateFalseOrderByCreatedAtDesc();
+    @Aggregation(pipeline = {
+            "{ $match: { isPrivate: false } }",
+            "{ $sort: { createdAt: -1 } }",
+            "{ $project: { name: 1, description: 1, creator: 1, groupScore: 1, isPrivate: 1, createdAt: 1, "
+                    + "memberCount: { $size: { $ifNull: ['$members', []] } } } }"
+    })
+    List<GroupSummaryResponse> findPublicSummaryResponses();
     
     Optional<Group> findByInviteCode(String inviteCode);
     
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'name': 1, 'members.user': 1 }")
+    List<Group> findSummariesByIdIn(Collection<String> ids);
+    
     List<Group> findTop50ByOrderByGroupScoreDesc();
     
     boolean existsByInviteCode(String inviteCode);
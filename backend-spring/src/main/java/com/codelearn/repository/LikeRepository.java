@@ -0,0 +1,20 @@
+package com.codelearn.repository;
+
+import com.codelearn.model.Like;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LikeRepository extends MongoRepository<Like, String> {
+
+    @Query(value = "{ 'targetType': ?0, 'target': { $in: ?1 }, 'user': ?2 }", fields = "{ 'target': 1 }")
+    List<Like> findByTargetTypeAndTargetInAndUser(String targetType, Collection<String> targets, String user);
+
+    long deleteByTargetTypeAndTargetAndUser(String targetType, String target, String user);
+
+    long deleteByTargetTypeAndTarget(String targetType, String target);
+}
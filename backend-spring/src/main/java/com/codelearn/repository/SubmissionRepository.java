@@ -0,0 +1,26 @@
+package com.codelearn.repository;
+
+import com.codelearn.model.Submission;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SubmissionRepository extends MongoRepository<Submission, String> {
+    
+    @Query(value = "{ 'contest': ?0 }", fields = "{ 'code': 0 }")
+    Page<Submission> findByContest(String contestId, Pageable pageable);
+    
+    @Query(value = "{ 'contest': ?0, 'user': ?1 }", fields = "{ 'code': 0 }")
+    Page<Submission> findByContestAndUser(String contestId, String userId, Pageable pageable);
+    
+    @Query(value = "{ 'contest': ?0, 'problem': ?1 }", fields = "{ 'code': 0 }")
+    Page<Submission> findByContestAndProblem(String contestId, Integer problem, Pageable pageable);
+    
+    @Query(value = "{ 'contest': ?0, 'user': ?1, 'problem': ?2 }", fields = "{ 'code': 0 }")
+    Page<Submission> findByContestAndUserAndProblem(String contestId, String userId, Integer problem, Pageable pageable);
+    
+    void deleteByContest(String contestId);
+}
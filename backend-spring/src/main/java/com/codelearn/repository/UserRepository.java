@@ -2,8 +2,10 @@ package com.codelearn.repository;
 
 import com.codelearn.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,15 +14,19 @@ public interface UserRepository extends MongoRepository<User, String> {
     
     Optional<User> findByEmail(String email);
     
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'groups': 1 }")
+    Optional<User> findGroupsById(String id);
+    
     boolean existsByEmail(String email);
     
+    @Query(value = "{ '_id': { $in: ?0 } }",
+            fields = "{ 'name': 1, 'email': 1, 'college': 1, 'department': 1, 'year': 1, 'codingScore': 1, 'bio': 1 }")
+    List<User> findSummariesByIdIn(Collection<String> ids);
+
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'name': 1, 'codingScore': 1 }")
+    List<User> findScoreSummariesByIdIn(Collection<String> ids);
+    
     List<User> findByCollegeOrderByCodingScoreDesc(String college);
     
     List<User> findByCollegeAndDepartmentOrderByCodingScoreDesc(String college, String department);
-    
-    List<User> findTop100ByOrderByCodingScoreDesc();
-    
-    List<User> findTop100ByCollegeOrderByCodingScoreDesc(String college);
-    
-    List<User> findTop100ByCollegeAndDepartmentOrderByCodingScoreDesc(String college, String department);
 }
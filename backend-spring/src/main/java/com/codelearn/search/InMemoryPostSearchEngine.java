@@ -0,0 +1,176 @@
+package com.codelearn.search;
+
+import com.codelearn.model.Post;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Single-node inverted index ranked with BM25. Fields are folded into one weighted term frequency and
+// length per post (a title hit counts as much as several hits in the problem statement). Built from Mongo
+// at startup and kept current by PostService on create, update and delete.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryPostSearchEngine implements PostSearchEngine {
+
+    private static final float TITLE_WEIGHT = 4f;
+    private static final float TAGS_WEIGHT = 3f;
+    private static final float LANGUAGE_WEIGHT = 2f;
+    private static final float PROBLEM_WEIGHT = 1f;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // "+" and "#" stay inside tokens so c++ and c# remain searchable
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}+#]+");
+
+    private static final Comparator<SearchHit> ORDER = Comparator
+            .comparingDouble(SearchHit::getScore).reversed()
+            .thenComparing(SearchHit::getId, Comparator.reverseOrder());
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<String, Float>> postings = new HashMap<>(); // term -> post -> weighted tf
+    private final Map<String, Map<String, Float>> documents = new HashMap<>(); // post -> term -> weighted tf
+    private final Map<String, Float> lengths = new HashMap<>();
+    private double totalLength;
+
+    @PostConstruct
+    void rebuild() {
+        Query query = new Query();
+        query.fields().include("title", "problem", "tags", "language");
+        int posts = 0;
+        try (Stream<Post> stream = mongoTemplate.stream(query, Post.class)) {
+            for (Post post : (Iterable<Post>) stream::iterator) {
+                index(post);
+                posts++;
+            }
+        }
+        log.info("Indexed {} posts for search ({} terms)", posts, postings.size());
+    }
+
+    @Override
+    public List<SearchHit> search(String query, SearchHit after, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        List<SearchHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount > 0 ? totalLength / documentCount : 0;
+            Map<String, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<String, Float> matches = postings.get(term);
+                if (matches == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - matches.size() + 0.5) / (matches.size() + 0.5));
+                matches.forEach((postId, tf) -> {
+                    double norm = K1 * (1 - B + B * lengths.get(postId) / averageLength);
+                    scores.merge(postId, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                });
+            }
+            scores.forEach((postId, score) -> hits.add(new SearchHit(postId, score)));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return hits.stream()
+                .filter(hit -> after == null || ORDER.compare(hit, after) > 0)
+                .sorted(ORDER)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void index(Post post) {
+        Map<String, Float> terms = new HashMap<>();
+        float length = 0;
+        length += add(terms, post.getTitle(), TITLE_WEIGHT);
+        length += add(terms, post.getTags() != null ? String.join(" ", post.getTags()) : null, TAGS_WEIGHT);
+        length += add(terms, post.getLanguage(), LANGUAGE_WEIGHT);
+        length += add(terms, post.getProblem(), PROBLEM_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            unindex(post.getId());
+            if (terms.isEmpty()) {
+                return;
+            }
+            terms.forEach((term, tf) -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(post.getId(), tf));
+            documents.put(post.getId(), terms);
+            lengths.put(post.getId(), length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(String postId) {
+        lock.writeLock().lock();
+        try {
+            unindex(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unindex(String postId) {
+        Map<String, Float> previous = documents.remove(postId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.keySet()) {
+            Map<String, Float> matches = postings.get(term);
+            matches.remove(postId);
+            if (matches.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengths.remove(postId);
+    }
+
+    private static float add(Map<String, Float> terms, String text, float weight) {
+        List<String> tokens = tokenize(text);
+        for (String token : tokens) {
+            terms.merge(token, weight, Float::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
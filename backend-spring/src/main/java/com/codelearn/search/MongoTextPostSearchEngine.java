@@ -0,0 +1,74 @@
+package com.codelearn.search;
+
+import com.codelearn.model.Post;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Shared engine on a weighted MongoDB text index, so every application node searches the same data.
+// Mongo maintains the index on every write, so index and remove have nothing to do.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "search.engine", havingValue = "mongo")
+public class MongoTextPostSearchEngine implements PostSearchEngine {
+
+    private final MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    void ensureIndex() {
+        mongoTemplate.indexOps(Post.class).ensureIndex(new TextIndexDefinition.TextIndexDefinitionBuilder()
+                .named("post_text")
+                .onField("title", 4f)
+                .onField("tags", 3f)
+                .onField("language", 2f)
+                .onField("problem", 1f)
+                .build());
+    }
+
+    @Override
+    public List<SearchHit> search(String query, SearchHit after, int limit) {
+        if (query == null || query.isBlank() || limit <= 0) {
+            return List.of();
+        }
+
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(Aggregation.match(TextCriteria.forDefaultLanguage().matching(query)));
+        stages.add(context -> new Document("$project",
+                new Document("score", new Document("$meta", "textScore"))));
+        if (after != null) {
+            stages.add(Aggregation.match(new Criteria().orOperator(
+                    Criteria.where("score").lt(after.getScore()),
+                    Criteria.where("score").is(after.getScore()).and("_id").lt(new ObjectId(after.getId())))));
+        }
+        stages.add(Aggregation.sort(Sort.by(Sort.Direction.DESC, "score", "_id")));
+        stages.add(Aggregation.limit(limit));
+
+        return mongoTemplate.aggregate(Aggregation.newAggregation(stages), "posts", Document.class)
+                .getMappedResults().stream()
+                .map(hit -> new SearchHit(hit.getObjectId("_id").toHexString(), hit.getDouble("score")))
+                .toList();
+    }
+
+    @Override
+    public void index(Post post) {
+    }
+
+    @Override
+    public void remove(String postId) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.codelearn.search;
+
+import com.codelearn.model.Post;
+
+import java.util.List;
+
+// Full-text search over posts' title, tags, language and problem statement. Hits are ordered by relevance,
+// then by id descending; passing the last hit of a page as "after" continues with the next page.
+public interface PostSearchEngine {
+
+    List<SearchHit> search(String query, SearchHit after, int limit);
+
+    // Adds the post or replaces its previous version
+    void index(Post post);
+
+    void remove(String postId);
+}
@@ -0,0 +1,15 @@
+package com.codelearn.search;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class SearchHit {
+    private final String id;
+    private final double score;
+}
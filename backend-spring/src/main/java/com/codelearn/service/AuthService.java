@@ -4,6 +4,7 @@ import com.codelearn.dto.request.LoginRequest;
 import com.codelearn.dto.request.RegisterRequest;
 import com.codelearn.dto.response.AuthResponse;
 import com.codelearn.dto.response.UserResponse;
+import com.codelearn.event.UserProfileChangedEvent;
 import com.codelearn.exception.BadRequestException;
 import com.codelearn.exception.ResourceNotFoundException;
 import com.codelearn.model.User;
@@ -11,6 +12,12 @@ import com.codelearn.repository.UserRepository;
 import com.codelearn.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -22,6 +29,8 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MongoTemplate mongoTemplate;
 
     public AuthResponse register(RegisterRequest request) {
         // Check if user exists
@@ -42,6 +51,8 @@ public class AuthService {
 
         user = userRepository.save(user);
         log.info("New user registered: {}", user.getEmail());
+        eventPublisher.publishEvent(new UserProfileChangedEvent(
+                user.getId(), user.getCodingScore(), user.getCollege(), user.getDepartment(), null, null));
 
         // Generate token
         String token = jwtTokenProvider.generateToken(user.getId());
@@ -80,9 +91,25 @@ public class AuthService {
     }
 
     public UserResponse updateProfile(String userId, UserResponse updates) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        // Only the edited fields are written; codingScore and scoreBatches belong to the score ledger
+        Update update = new Update();
+        if (updates.getName() != null) update.set("name", updates.getName());
+        if (updates.getBio() != null) update.set("bio", updates.getBio());
+        if (updates.getAvatar() != null) update.set("avatar", updates.getAvatar());
+        if (updates.getSkills() != null) update.set("skills", updates.getSkills());
+        if (updates.getDepartment() != null) update.set("department", updates.getDepartment());
+        if (updates.getYear() != null) update.set("year", updates.getYear());
+        if (update.getUpdateObject().isEmpty()) {
+            return getCurrentUser(userId);
+        }
 
+        // The previous values are returned so a department change can be reported
+        User user = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(userId)), update,
+                FindAndModifyOptions.options().returnNew(false), User.class);
+        if (user == null) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        String previousDepartment = user.getDepartment();
         if (updates.getName() != null) user.setName(updates.getName());
         if (updates.getBio() != null) user.setBio(updates.getBio());
         if (updates.getAvatar() != null) user.setAvatar(updates.getAvatar());
@@ -90,7 +117,8 @@ public class AuthService {
         if (updates.getDepartment() != null) user.setDepartment(updates.getDepartment());
         if (updates.getYear() != null) user.setYear(updates.getYear());
 
-        user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(user.getId(), user.getCodingScore(),
+                user.getCollege(), user.getDepartment(), user.getCollege(), previousDepartment));
         return mapToUserResponse(user);
     }
 
@@ -0,0 +1,107 @@
+package com.codelearn.service;
+
+import com.codelearn.event.UserProfileChangedEvent;
+import com.codelearn.model.Post;
+import com.codelearn.model.User;
+import com.codelearn.repository.UserRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Short-lived, size-bounded cache of the author summaries shown next to posts and comments. Misses for a
+// whole page are loaded with one projected $in query. Profile edits evict the user at once; score changes
+// show up once the entry expires.
+@Component
+public class AuthorSummaryCache {
+
+    private final UserRepository userRepository;
+    private final long ttlMs;
+    private final Map<String, CachedSummary> entries;
+
+    // Bumped on every eviction, so a load that raced an edit is not cached
+    private long evictions;
+
+    public AuthorSummaryCache(UserRepository userRepository,
+                              @Value("${posts.author-cache.ttl-ms}") long ttlMs,
+                              @Value("${posts.author-cache.size}") int capacity) {
+        this.userRepository = userRepository;
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSummary> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // Summaries of the given users that exist; the returned objects are shared and must not be modified
+    public Map<String, Post.UserSummary> resolve(Collection<String> userIds) {
+        Map<String, Post.UserSummary> summaries = new HashMap<>();
+        Set<String> missing;
+        long evictionsBefore;
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            for (String userId : userIds) {
+                CachedSummary cached = entries.get(userId);
+                if (cached != null && cached.expiresAt > now) {
+                    summaries.put(userId, cached.summary);
+                }
+            }
+            missing = userIds.stream()
+                    .filter(userId -> !summaries.containsKey(userId))
+                    .collect(Collectors.toSet());
+            evictionsBefore = evictions;
+        }
+        if (missing.isEmpty()) {
+            return summaries;
+        }
+
+        List<Post.UserSummary> loaded = userRepository.findSummariesByIdIn(missing).stream()
+                .map(AuthorSummaryCache::summarize)
+                .toList();
+        synchronized (entries) {
+            boolean current = evictions == evictionsBefore;
+            for (Post.UserSummary summary : loaded) {
+                summaries.put(summary.getId(), summary);
+                if (current) {
+                    entries.put(summary.getId(), new CachedSummary(summary, now + ttlMs));
+                }
+            }
+        }
+        return summaries;
+    }
+
+    @EventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        synchronized (entries) {
+            entries.remove(event.getUserId());
+            evictions++;
+        }
+    }
+
+    private static Post.UserSummary summarize(User user) {
+        return Post.UserSummary.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .college(user.getCollege())
+                .codingScore(user.getCodingScore())
+                .bio(user.getBio())
+                .build();
+    }
+
+    @AllArgsConstructor
+    private static class CachedSummary {
+        private final Post.UserSummary summary;
+        private final long expiresAt;
+    }
+}
@@ -0,0 +1,128 @@
+package com.codelearn.service;
+
+import com.codelearn.event.ContestLifecycleEvent;
+import com.codelearn.model.Contest;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Fires each contest's start and end transition at the exact time instead of recomputing status on reads.
+// A transition that fails is retried with a growing delay until it succeeds or the contest is rescheduled.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContestLifecycleScheduler {
+
+    private static final String UPCOMING = "upcoming";
+    private static final String ONGOING = "ongoing";
+    private static final String COMPLETED = "completed";
+
+    private static final long RETRY_DELAY_MS = 1000;
+    private static final long MAX_RETRY_DELAY_MS = 60_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "contest-lifecycle");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, List<ScheduledFuture<?>>> scheduled = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleActiveContests() {
+        Query query = new Query(Criteria.where("status").in(UPCOMING, ONGOING));
+        query.fields().include("startTime", "endTime", "status");
+
+        List<Contest> contests = mongoTemplate.find(query, Contest.class);
+        contests.forEach(this::schedule);
+        log.info("Scheduled lifecycle transitions for {} upcoming and ongoing contests", contests.size());
+    }
+
+    @PreDestroy
+    void stop() {
+        timer.shutdownNow();
+    }
+
+    public void schedule(Contest contest) {
+        cancel(contest.getId());
+
+        String contestId = contest.getId();
+        LocalDateTime now = LocalDateTime.now();
+        // Retries of failed transitions are added to the list, so cancel stops them too
+        List<ScheduledFuture<?>> futures = new CopyOnWriteArrayList<>();
+        scheduled.put(contestId, futures);
+        if (!now.isBefore(contest.getEndTime())) {
+            timer.execute(() -> transition(contestId, COMPLETED, 0));
+            return;
+        }
+
+        if (now.isBefore(contest.getStartTime())) {
+            futures.add(timer.schedule(() -> transition(contestId, ONGOING, 0),
+                    delayMillis(now, contest.getStartTime()), TimeUnit.MILLISECONDS));
+        } else {
+            timer.execute(() -> transition(contestId, ONGOING, 0));
+        }
+        futures.add(timer.schedule(() -> transition(contestId, COMPLETED, 0),
+                delayMillis(now, contest.getEndTime()), TimeUnit.MILLISECONDS));
+    }
+
+    public void cancel(String contestId) {
+        List<ScheduledFuture<?>> futures = scheduled.remove(contestId);
+        if (futures != null) {
+            futures.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private void transition(String contestId, String status, int attempt) {
+        try {
+            // Only move forward, so a late or repeated timer never reverts a newer status
+            List<String> previous = ONGOING.equals(status) ? List.of(UPCOMING) : List.of(UPCOMING, ONGOING);
+            long modified = mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(contestId).and("status").in(previous)),
+                    new Update().set("status", status),
+                    Contest.class).getModifiedCount();
+
+            if (COMPLETED.equals(status)) {
+                scheduled.remove(contestId);
+            }
+            if (modified > 0) {
+                log.info("Contest {} is now {}", contestId, status);
+                eventPublisher.publishEvent(new ContestLifecycleEvent(contestId, status));
+            }
+        } catch (Exception e) {
+            long delay = Math.min(RETRY_DELAY_MS << Math.min(attempt, 16), MAX_RETRY_DELAY_MS);
+            log.error("Could not move contest {} to {}; retrying in {} ms", contestId, status, delay, e);
+            ScheduledFuture<?> retry = timer.schedule(() -> transition(contestId, status, attempt + 1),
+                    delay, TimeUnit.MILLISECONDS);
+            List<ScheduledFuture<?>> futures = scheduled.get(contestId);
+            if (futures != null) {
+                futures.add(retry);
+            }
+        }
+    }
+
+    private long delayMillis(LocalDateTime now, LocalDateTime time) {
+        return Math.max(Duration.between(now, time).toMillis(), 0);
+    }
+}
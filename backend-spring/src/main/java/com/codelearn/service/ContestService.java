@@ -2,25 +2,55 @@ package com.codelearn.service;
 
 import com.codelearn.dto.request.CreateContestRequest;
 import com.codelearn.dto.request.SubmitSolutionRequest;
+import com.codelearn.dto.response.ContestSummaryResponse;
+import com.codelearn.dto.response.CursorPage;
 import com.codelearn.dto.response.MessageResponse;
+import com.codelearn.dto.response.PageResponse;
 import com.codelearn.dto.response.SubmissionResponse;
+import com.codelearn.dto.response.TestDataResponse;
 import com.codelearn.exception.BadRequestException;
 import com.codelearn.exception.ResourceNotFoundException;
 import com.codelearn.exception.UnauthorizedException;
+import com.codelearn.judge.JudgeResult;
+import com.codelearn.judge.JudgeService;
+import com.codelearn.judge.Language;
+import com.codelearn.judge.TestDataStore;
+import com.codelearn.judge.Verdict;
 import com.codelearn.model.Contest;
 import com.codelearn.model.Group;
+import com.codelearn.model.Submission;
 import com.codelearn.model.User;
 import com.codelearn.repository.ContestRepository;
 import com.codelearn.repository.GroupRepository;
+import com.codelearn.repository.SubmissionRepository;
 import com.codelearn.repository.UserRepository;
+import com.codelearn.util.Cursors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -30,12 +60,67 @@ public class ContestService {
     private final ContestRepository contestRepository;
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
+    private final SubmissionRepository submissionRepository;
+    private final JudgeService judgeService;
+    private final ScoreService scoreService;
+    private final ScoreboardService scoreboardService;
+    private final ContestLifecycleScheduler contestLifecycleScheduler;
+    private final MongoTemplate mongoTemplate;
+    private final SubmissionIngestionService submissionIngestionService;
+    private final TestDataStore testDataStore;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    public CursorPage<ContestSummaryResponse> getContestSummaries(String status, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        Criteria criteria = new Criteria();
+        List<Criteria> filters = new ArrayList<>();
+        if (status != null) {
+            filters.add(Criteria.where("status").is(status));
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            // Keyset on (startTime, _id) descending: continue strictly after the last contest returned
+            String[] key = Cursors.decode(cursor, 2);
+            try {
+                LocalDateTime startTime = LocalDateTime.parse(key[0]);
+                filters.add(new Criteria().orOperator(
+                        Criteria.where("startTime").lt(startTime),
+                        Criteria.where("startTime").is(startTime).and("_id").lt(new ObjectId(key[1]))));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+        if (!filters.isEmpty()) {
+            criteria.andOperator(filters);
+        }
 
-    public List<Contest> getAllContests() {
-        List<Contest> contests = contestRepository.findAllByOrderByStartTimeDesc();
-        return contests.stream()
-                .map(this::populateContestDetails)
-                .collect(Collectors.toList());
+        TypedAggregation<Contest> aggregation = Aggregation.newAggregation(Contest.class,
+                Aggregation.match(criteria),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "startTime", "_id")),
+                Aggregation.limit(pageSize + 1),
+                Aggregation.project("title", "startTime", "endTime", "duration", "status")
+                        .and(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("participatingGroups").then(List.of())))
+                        .as("groupCount")
+                        .and(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("problems").then(List.of())))
+                        .as("problemCount"));
+
+        List<ContestSummaryResponse> contests = new ArrayList<>(
+                mongoTemplate.aggregate(aggregation, ContestSummaryResponse.class).getMappedResults());
+
+        String nextCursor = null;
+        if (contests.size() > pageSize) {
+            contests = contests.subList(0, pageSize);
+            ContestSummaryResponse last = contests.get(pageSize - 1);
+            nextCursor = Cursors.encode(last.getStartTime(), last.getId());
+        }
+
+        return CursorPage.<ContestSummaryResponse>builder()
+                .items(contests)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     public Contest getContestById(String contestId) {
@@ -64,10 +149,7 @@ public class ContestService {
                         List<Contest.TestCase> testCases = new ArrayList<>();
                         if (p.getTestCases() != null) {
                             testCases = p.getTestCases().stream()
-                                    .map(tc -> Contest.TestCase.builder()
-                                            .input(tc.getInput())
-                                            .output(tc.getOutput())
-                                            .build())
+                                    .map(this::storeTestCase)
                                     .collect(Collectors.toList());
                         }
                         return Contest.Problem.builder()
@@ -93,14 +175,39 @@ public class ContestService {
                 .endTime(endTime)
                 .duration(request.getDuration())
                 .status(status)
-                .submissions(new ArrayList<>())
                 .build();
 
         contest = contestRepository.save(contest);
+        contestLifecycleScheduler.schedule(contest);
         log.info("New contest created by user {}: {}", userId, contest.getTitle());
         return populateContestDetails(contest);
     }
 
+    public TestDataResponse uploadTestData(InputStream content) {
+        TestDataStore.Stored stored = testDataStore.store(content);
+        return new TestDataResponse(stored.getId(), stored.getSize());
+    }
+
+    // Test-case payloads live in GridFS so contest documents only carry their references
+    private Contest.TestCase storeTestCase(CreateContestRequest.TestCaseRequest request) {
+        TestDataStore.Stored input = storePayload(request.getInputRef(), request.getInput());
+        TestDataStore.Stored output = storePayload(request.getOutputRef(), request.getOutput());
+        return Contest.TestCase.builder()
+                .inputRef(input.getId())
+                .inputSize(input.getSize())
+                .outputRef(output.getId())
+                .outputSize(output.getSize())
+                .build();
+    }
+
+    private TestDataStore.Stored storePayload(String ref, String inline) {
+        if (ref == null) {
+            return testDataStore.store(inline);
+        }
+        return testDataStore.find(ref)
+                .orElseThrow(() -> new BadRequestException("Unknown test data: " + ref));
+    }
+
     public SubmissionResponse submitSolution(String userId, String contestId, SubmitSolutionRequest request) {
         Contest contest = contestRepository.findById(contestId)
                 .orElseThrow(() -> new ResourceNotFoundException("Contest", "id", contestId));
@@ -112,7 +219,7 @@ public class ContestService {
         }
 
         // Find user's group
-        User user = userRepository.findById(userId)
+        User user = userRepository.findGroupsById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
 
         Contest.ParticipatingGroup userGroup = null;
@@ -127,59 +234,102 @@ public class ContestService {
             throw new BadRequestException("You are not part of any participating group");
         }
 
-        // Calculate score
-        Contest.Problem problem = contest.getProblems().get(request.getProblemIndex());
-        int score = problem.getPoints() != null ? problem.getPoints() : 100;
+        if (request.getProblemIndex() < 0 || request.getProblemIndex() >= contest.getProblems().size()) {
+            throw new BadRequestException("Invalid problem index");
+        }
+        if (Language.fromString(request.getLanguage()) == null) {
+            throw new BadRequestException("Unsupported language: " + request.getLanguage());
+        }
 
-        // Add submission
-        contest.getSubmissions().add(Contest.Submission.builder()
+        Contest.Problem problem = contest.getProblems().get(request.getProblemIndex());
+        if (problem.getTestCases() == null || problem.getTestCases().isEmpty()) {
+            throw new BadRequestException("Problem has no test cases to judge against");
+        }
+        Submission submission = Submission.builder()
+                .id(new ObjectId().toHexString())
+                .contest(contestId)
                 .user(userId)
                 .group(userGroup.getGroup())
                 .problem(request.getProblemIndex())
                 .code(request.getCode())
                 .language(request.getLanguage())
-                .score(score)
+                .verdict(Verdict.PENDING.name())
                 .submittedAt(LocalDateTime.now())
-                .build());
+                .build();
 
-        // Update group score
-        userGroup.setScore(userGroup.getScore() + score);
+        if (submissionIngestionService.isEnabled()) {
+            // Stored and judged in the background; the client polls or subscribes for the verdict
+            submissionIngestionService.enqueue(submission, problem);
+            return SubmissionResponse.builder()
+                    .id(submission.getId())
+                    .message("Submission queued")
+                    .verdict(Verdict.PENDING)
+                    .build();
+        }
 
-        // Update user coding score
-        user.setCodingScore(user.getCodingScore() + score);
-        userRepository.save(user);
+        // Judge against the problem's test cases before awarding anything
+        JudgeResult result = judgeService.judge(problem, request.getLanguage(), request.getCode()).join();
+        int score = result.isAccepted() ? ScoreService.pointsFor(problem) : 0;
 
-        // Update group total score
-        Group group = groupRepository.findById(userGroup.getGroup()).orElse(null);
-        if (group != null) {
-            group.setGroupScore(group.getGroupScore() + score);
-            groupRepository.save(group);
-        }
+        submission.setScore(score);
+        submission.setVerdict(result.getVerdict().name());
+        submission.setPassedTests(result.getPassedTests());
+        submission.setTotalTests(result.getTotalTests());
+        submissionRepository.insert(submission);
 
-        contestRepository.save(contest);
-        log.info("Solution submitted by user {} for contest {}", userId, contestId);
+        if (score > 0) {
+            scoreService.awardContestSubmission(contestId, userId, userGroup.getGroup(), submission.getProblem(), score);
+            scoreboardService.recordAccepted(contestId, userGroup.getGroup(), submission.getProblem(),
+                    score, submission.getSubmittedAt());
+        }
 
-        return SubmissionResponse.builder()
-                .message("Submission successful")
-                .score(score)
-                .build();
+        log.info("Solution submitted by user {} for contest {}: {}", userId, contestId, result.getVerdict());
+        return SubmissionResponse.judged(submission.getId(), score, result);
     }
 
-    public Contest updateContestStatus(String contestId) {
-        Contest contest = contestRepository.findById(contestId)
-                .orElseThrow(() -> new ResourceNotFoundException("Contest", "id", contestId));
+    public PageResponse<Submission> getSubmissions(String contestId, String userId, Integer problem, int page, int size) {
+        if (!contestRepository.existsById(contestId)) {
+            throw new ResourceNotFoundException("Contest", "id", contestId);
+        }
 
-        LocalDateTime now = LocalDateTime.now();
-        if (now.isBefore(contest.getStartTime())) {
-            contest.setStatus("upcoming");
-        } else if (now.isAfter(contest.getStartTime()) && now.isBefore(contest.getEndTime())) {
-            contest.setStatus("ongoing");
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by(Sort.Direction.DESC, "submittedAt"));
+
+        Page<Submission> submissions;
+        if (userId != null && problem != null) {
+            submissions = submissionRepository.findByContestAndUserAndProblem(contestId, userId, problem, pageable);
+        } else if (userId != null) {
+            submissions = submissionRepository.findByContestAndUser(contestId, userId, pageable);
+        } else if (problem != null) {
+            submissions = submissionRepository.findByContestAndProblem(contestId, problem, pageable);
         } else {
-            contest.setStatus("completed");
+            submissions = submissionRepository.findByContest(contestId, pageable);
         }
 
-        contest = contestRepository.save(contest);
-        return populateContestDetails(contest);
+        populateSubmissionDetails(submissions.getContent());
+        return PageResponse.of(submissions);
+    }
+
+    public Submission getSubmission(String userId, String contestId, String submissionId) {
+        Submission submission = submissionIngestionService.findQueued(submissionId)
+                .or(() -> submissionRepository.findById(submissionId))
+                .filter(s -> s.getContest().equals(contestId))
+                .orElseThrow(() -> new ResourceNotFoundException("Submission", "id", submissionId));
+
+        // Code is only visible to its author and the contest creator
+        if (!submission.getUser().equals(userId)) {
+            Contest contest = contestRepository.findById(contestId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Contest", "id", contestId));
+            if (!contest.getCreator().equals(userId)) {
+                throw new UnauthorizedException("Not authorized");
+            }
+        }
+
+        return populateSubmissionDetails(submission);
+    }
+
+    public SseEmitter subscribeToVerdict(String userId, String contestId, String submissionId) {
+        return submissionIngestionService.subscribe(getSubmission(userId, contestId, submissionId));
     }
 
     public MessageResponse deleteContest(String userId, String contestId) {
@@ -191,55 +341,101 @@ public class ContestService {
             throw new UnauthorizedException("Not authorized");
         }
 
+        submissionRepository.deleteByContest(contestId);
         contestRepository.delete(contest);
+        contestLifecycleScheduler.cancel(contestId);
+        scoreboardService.evict(contestId);
         log.info("Contest deleted: {}", contestId);
         return new MessageResponse("Contest deleted");
     }
 
     private Contest populateContestDetails(Contest contest) {
-        // Populate creator details
-        if (contest.getCreator() != null) {
-            userRepository.findById(contest.getCreator()).ifPresent(user -> {
+        populateContestDetails(List.of(contest));
+        return contest;
+    }
+
+    private List<Contest> populateContestDetails(List<Contest> contests) {
+        SummaryBatch batch = new SummaryBatch();
+        batch.load(
+                contests.stream().map(Contest::getCreator),
+                contests.stream()
+                        .filter(contest -> contest.getParticipatingGroups() != null)
+                        .flatMap(contest -> contest.getParticipatingGroups().stream())
+                        .map(Contest.ParticipatingGroup::getGroup));
+
+        for (Contest contest : contests) {
+            // Populate creator details
+            User creator = batch.users.get(contest.getCreator());
+            if (creator != null) {
                 contest.setCreatorDetails(Contest.UserSummary.builder()
+                        .id(creator.getId())
+                        .name(creator.getName())
+                        .email(creator.getEmail())
+                        .build());
+            }
+
+            // Populate participating group details
+            if (contest.getParticipatingGroups() != null) {
+                contest.getParticipatingGroups().forEach(pg -> {
+                    Group group = batch.groups.get(pg.getGroup());
+                    if (group != null) {
+                        pg.setGroupDetails(Contest.GroupSummary.builder()
+                                .id(group.getId())
+                                .name(group.getName())
+                                .memberCount(group.getMembers() != null ? group.getMembers().size() : 0)
+                                .build());
+                    }
+                });
+            }
+        }
+        return contests;
+    }
+
+    private Submission populateSubmissionDetails(Submission submission) {
+        populateSubmissionDetails(List.of(submission));
+        return submission;
+    }
+
+    private void populateSubmissionDetails(List<Submission> submissions) {
+        SummaryBatch batch = new SummaryBatch();
+        batch.load(submissions.stream().map(Submission::getUser), submissions.stream().map(Submission::getGroup));
+
+        for (Submission submission : submissions) {
+            User user = batch.users.get(submission.getUser());
+            if (user != null) {
+                submission.setUserDetails(Submission.UserSummary.builder()
                         .id(user.getId())
                         .name(user.getName())
                         .email(user.getEmail())
                         .build());
-            });
-        }
-
-        // Populate participating group details
-        if (contest.getParticipatingGroups() != null) {
-            contest.getParticipatingGroups().forEach(pg -> {
-                groupRepository.findById(pg.getGroup()).ifPresent(group -> {
-                    pg.setGroupDetails(Contest.GroupSummary.builder()
-                            .id(group.getId())
-                            .name(group.getName())
-                            .memberCount(group.getMembers() != null ? group.getMembers().size() : 0)
-                            .build());
-                });
-            });
-        }
-
-        // Populate submission details
-        if (contest.getSubmissions() != null) {
-            contest.getSubmissions().forEach(sub -> {
-                userRepository.findById(sub.getUser()).ifPresent(user -> {
-                    sub.setUserDetails(Contest.UserSummary.builder()
-                            .id(user.getId())
-                            .name(user.getName())
-                            .email(user.getEmail())
-                            .build());
-                });
-                groupRepository.findById(sub.getGroup()).ifPresent(group -> {
-                    sub.setGroupDetails(Contest.GroupSummary.builder()
-                            .id(group.getId())
-                            .name(group.getName())
-                            .build());
-                });
-            });
+            }
+            Group group = batch.groups.get(submission.getGroup());
+            if (group != null) {
+                submission.setGroupDetails(Submission.GroupSummary.builder()
+                        .id(group.getId())
+                        .name(group.getName())
+                        .build());
+            }
         }
+    }
 
-        return contest;
+    // Per-request identity map: each distinct id is resolved once, with one projected query per collection
+    private final class SummaryBatch {
+        private final Map<String, User> users = new HashMap<>();
+        private final Map<String, Group> groups = new HashMap<>();
+
+        private void load(Stream<String> userIds, Stream<String> groupIds) {
+            Set<String> missingUsers = userIds.filter(id -> id != null && !users.containsKey(id))
+                    .collect(Collectors.toSet());
+            if (!missingUsers.isEmpty()) {
+                userRepository.findSummariesByIdIn(missingUsers).forEach(user -> users.put(user.getId(), user));
+            }
+
+            Set<String> missingGroups = groupIds.filter(id -> id != null && !groups.containsKey(id))
+                    .collect(Collectors.toSet());
+            if (!missingGroups.isEmpty()) {
+                groupRepository.findSummariesByIdIn(missingGroups).forEach(group -> groups.put(group.getId(), group));
+            }
+        }
     }
 }
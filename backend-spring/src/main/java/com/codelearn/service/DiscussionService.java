@@ -4,15 +4,25 @@ import com.codelearn.dto.request.AddCommentRequest;
 import com.codelearn.dto.request.AddReplyRequest;
 import com.codelearn.exception.ResourceNotFoundException;
 import com.codelearn.model.Discussion;
-import com.codelearn.model.User;
+import com.codelearn.model.Like;
+import com.codelearn.model.Post;
 import com.codelearn.repository.DiscussionRepository;
-import com.codelearn.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -21,27 +31,20 @@ import java.util.UUID;
 public class DiscussionService {
 
     private final DiscussionRepository discussionRepository;
-    private final UserRepository userRepository;
+    private final ScoreService scoreService;
+    private final LikeService likeService;
+    private final HotPostRanking hotPostRanking;
+    private final AuthorSummaryCache authorSummaryCache;
+    private final MongoTemplate mongoTemplate;
 
     public Discussion getDiscussionByPostId(String postId) {
-        Discussion discussion = discussionRepository.findByPost(postId)
-                .orElseGet(() -> {
-                    Discussion newDiscussion = Discussion.builder()
-                            .post(postId)
-                            .comments(new ArrayList<>())
-                            .build();
-                    return discussionRepository.save(newDiscussion);
-                });
-
-        return populateDiscussionDetails(discussion);
+        return populateDiscussionDetails(findOrCreate(postId));
     }
 
+    // Comments, replies and like counts are written with targeted updates, so concurrent writers to the same
+    // discussion never overwrite each other
     public Discussion addComment(String userId, String postId, AddCommentRequest request) {
-        Discussion discussion = discussionRepository.findByPost(postId)
-                .orElseGet(() -> Discussion.builder()
-                        .post(postId)
-                        .comments(new ArrayList<>())
-                        .build());
+        findOrCreate(postId);
 
         Discussion.Comment comment = Discussion.Comment.builder()
                 .id(UUID.randomUUID().toString())
@@ -49,34 +52,25 @@ public class DiscussionService {
                 .content(request.getContent())
                 .code(request.getCode() != null ? request.getCode() : "")
                 .language(request.getLanguage() != null ? request.getLanguage() : "")
-                .likes(new ArrayList<>())
+                .likeCount(0)
                 .replies(new ArrayList<>())
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        discussion.getComments().add(comment);
-        discussion = discussionRepository.save(discussion);
+        Discussion discussion = mongoTemplate.findAndModify(
+                new Query(Criteria.where("post").is(postId)),
+                new Update().push("comments", comment),
+                FindAndModifyOptions.options().returnNew(true), Discussion.class);
 
+        hotPostRanking.record(postId, HotPostRanking.COMMENT);
         // Award points for participation
-        User user = userRepository.findById(userId).orElse(null);
-        if (user != null) {
-            user.setCodingScore(user.getCodingScore() + 5);
-            userRepository.save(user);
-        }
+        scoreService.award(ScoreService.COMMENT, comment.getId(), userId, 5);
 
         log.info("Comment added by user {} to post {}", userId, postId);
         return populateDiscussionDetails(discussion);
     }
 
     public Discussion addReply(String userId, String postId, String commentId, AddReplyRequest request) {
-        Discussion discussion = discussionRepository.findByPost(postId)
-                .orElseThrow(() -> new ResourceNotFoundException("Discussion", "postId", postId));
-
-        Discussion.Comment comment = discussion.getComments().stream()
-                .filter(c -> c.getId().equals(commentId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", commentId));
-
         Discussion.Reply reply = Discussion.Reply.builder()
                 .id(UUID.randomUUID().toString())
                 .user(userId)
@@ -84,19 +78,16 @@ public class DiscussionService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        if (comment.getReplies() == null) {
-            comment.setReplies(new ArrayList<>());
+        Discussion discussion = mongoTemplate.findAndModify(
+                commentQuery(postId, commentId),
+                new Update().push("comments.$.replies", reply),
+                FindAndModifyOptions.options().returnNew(true), Discussion.class);
+        if (discussion == null) {
+            throw new ResourceNotFoundException("Comment", "id", commentId);
         }
-        comment.getReplies().add(reply);
-
-        discussion = discussionRepository.save(discussion);
 
         // Award points for participation
-        User user = userRepository.findById(userId).orElse(null);
-        if (user != null) {
-            user.setCodingScore(user.getCodingScore() + 3);
-            userRepository.save(user);
-        }
+        scoreService.award(ScoreService.REPLY, reply.getId(), userId, 3);
 
         log.info("Reply added by user {} to comment {} on post {}", userId, commentId, postId);
         return populateDiscussionDetails(discussion);
@@ -111,54 +102,88 @@ public class DiscussionService {
                 .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", commentId));
 
-        if (comment.getLikes() == null) {
-            comment.setLikes(new ArrayList<>());
+        int delta = likeService.toggle(Like.COMMENT, commentId, userId);
+        if (delta != 0) {
+            discussion = mongoTemplate.findAndModify(
+                    commentQuery(postId, commentId),
+                    new Update().inc("comments.$.likeCount", delta),
+                    FindAndModifyOptions.options().returnNew(true), Discussion.class);
         }
-
-        int likeIndex = comment.getLikes().indexOf(userId);
-        if (likeIndex > -1) {
-            comment.getLikes().remove(likeIndex);
-        } else {
-            comment.getLikes().add(userId);
+        if (delta > 0) {
             // Award points to comment author
-            User author = userRepository.findById(comment.getUser()).orElse(null);
-            if (author != null) {
-                author.setCodingScore(author.getCodingScore() + 1);
-                userRepository.save(author);
-            }
+            scoreService.award(ScoreService.COMMENT_LIKE, commentId + ":" + userId, comment.getUser(), 1);
         }
 
-        discussion = discussionRepository.save(discussion);
         return populateDiscussionDetails(discussion);
     }
 
+    // Which comments of the post's discussion the user has liked
+    public Set<String> getLikedComments(String userId, String postId) {
+        Discussion discussion = discussionRepository.findByPost(postId)
+                .orElseThrow(() -> new ResourceNotFoundException("Discussion", "postId", postId));
+        List<String> commentIds = discussion.getComments().stream().map(Discussion.Comment::getId).toList();
+        return likeService.likedBy(Like.COMMENT, commentIds, userId);
+    }
+
+    private static Query commentQuery(String postId, String commentId) {
+        return new Query(Criteria.where("post").is(postId).and("comments.id").is(commentId));
+    }
+
+    // discussions.post is unique, so when two requests create the same discussion the loser reads the winner's
+    private Discussion findOrCreate(String postId) {
+        return discussionRepository.findByPost(postId).orElseGet(() -> {
+            try {
+                return discussionRepository.save(Discussion.builder()
+                        .post(postId)
+                        .comments(new ArrayList<>())
+                        .build());
+            } catch (DuplicateKeyException e) {
+                return discussionRepository.findByPost(postId).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    // Every comment and reply author of the thread is resolved in one lookup
     private Discussion populateDiscussionDetails(Discussion discussion) {
-        if (discussion.getComments() != null) {
-            discussion.getComments().forEach(comment -> {
-                // Populate comment user details
-                userRepository.findById(comment.getUser()).ifPresent(user -> {
-                    comment.setUserDetails(Discussion.UserSummary.builder()
-                            .id(user.getId())
-                            .name(user.getName())
-                            .email(user.getEmail())
-                            .college(user.getCollege())
-                            .codingScore(user.getCodingScore())
-                            .build());
-                });
-
-                // Populate reply user details
-                if (comment.getReplies() != null) {
-                    comment.getReplies().forEach(reply -> {
-                        userRepository.findById(reply.getUser()).ifPresent(user -> {
-                            reply.setUserDetails(Discussion.UserSummary.builder()
-                                    .id(user.getId())
-                                    .name(user.getName())
-                                    .email(user.getEmail())
-                                    .build());
-                        });
-                    });
+        if (discussion.getComments() == null) {
+            return discussion;
+        }
+        Set<String> userIds = new HashSet<>();
+        for (Discussion.Comment comment : discussion.getComments()) {
+            userIds.add(comment.getUser());
+            if (comment.getReplies() != null) {
+                comment.getReplies().forEach(reply -> userIds.add(reply.getUser()));
+            }
+        }
+        userIds.remove(null);
+        Map<String, Post.UserSummary> users = userIds.isEmpty() ? Map.of() : authorSummaryCache.resolve(userIds);
+
+        for (Discussion.Comment comment : discussion.getComments()) {
+            // Populate comment user details
+            Post.UserSummary user = users.get(comment.getUser());
+            if (user != null) {
+                comment.setUserDetails(Discussion.UserSummary.builder()
+                        .id(user.getId())
+                        .name(user.getName())
+                        .email(user.getEmail())
+                        .college(user.getCollege())
+                        .codingScore(user.getCodingScore())
+                        .build());
+            }
+
+            // Populate reply user details
+            if (comment.getReplies() != null) {
+                for (Discussion.Reply reply : comment.getReplies()) {
+                    Post.UserSummary replier = users.get(reply.getUser());
+                    if (replier != null) {
+                        reply.setUserDetails(Discussion.UserSummary.builder()
+                                .id(replier.getId())
+                                .name(replier.getName())
+                                .email(replier.getEmail())
+                                .build());
+                    }
                 }
-            });
+            }
         }
         return discussion;
     }
@@ -2,6 +2,7 @@ package com.codelearn.service;
 
 import com.codelearn.dto.request.CreateGroupRequest;
 import com.codelearn.dto.request.JoinGroupRequest;
+import com.codelearn.dto.response.GroupSummaryResponse;
 import com.codelearn.dto.response.MessageResponse;
 import com.codelearn.exception.BadRequestException;
 import com.codelearn.exception.ResourceNotFoundException;
@@ -12,12 +13,21 @@ import com.codelearn.repository.GroupRepository;
 import com.codelearn.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -27,19 +37,14 @@ public class GroupService {
 
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
 
-    public List<Group> getUserGroups(String userId) {
-        List<Group> groups = groupRepository.findByMemberUserId(userId);
-        return groups.stream()
-                .map(this::populateGroupDetails)
-                .collect(Collectors.toList());
+    public List<GroupSummaryResponse> getUserGroups(String userId) {
+        return populateCreatorDetails(groupRepository.findSummaryResponsesByMemberUserId(userId));
     }
 
-    public List<Group> getAllPublicGroups() {
-        List<Group> groups = groupRepository.findByIsPrivateFalseOrderByCreatedAtDesc();
-        return groups.stream()
-                .map(this::populateGroupDetails)
-                .collect(Collectors.toList());
+    public List<GroupSummaryResponse> getAllPublicGroups() {
+        return populateCreatorDetails(groupRepository.findPublicSummaryResponses());
     }
 
     public Group getGroupById(String groupId, String userId) {
@@ -76,14 +81,7 @@ public class GroupService {
         group = groupRepository.save(group);
 
         // Add group to user's groups
-        User user = userRepository.findById(userId).orElse(null);
-        if (user != null) {
-            if (user.getGroups() == null) {
-                user.setGroups(new ArrayList<>());
-            }
-            user.getGroups().add(group.getId());
-            userRepository.save(user);
-        }
+        addUserGroup(userId, group.getId());
 
         log.info("New group created by user {}: {}", userId, group.getName());
         return populateGroupDetails(group);
@@ -115,21 +113,21 @@ public class GroupService {
             throw new BadRequestException("Your email is not allowed to join this group");
         }
 
-        // Add member
-        group.getMembers().add(Group.GroupMember.builder()
+        // Add member, unless a concurrent join already did; groupScore is left to its $inc updates
+        Group.GroupMember member = Group.GroupMember.builder()
                 .user(userId)
                 .role("member")
                 .joinedAt(LocalDateTime.now())
-                .build());
-
-        group = groupRepository.save(group);
+                .build();
+        Query notMember = new Query(Criteria.where("_id").is(groupId).and("members.user").ne(userId));
+        if (mongoTemplate.updateFirst(notMember, new Update().push("members", member), Group.class)
+                .getModifiedCount() == 0) {
+            throw new BadRequestException("Already a member of this group");
+        }
+        group.getMembers().add(member);
 
         // Add group to user's groups
-        if (user.getGroups() == null) {
-            user.setGroups(new ArrayList<>());
-        }
-        user.getGroups().add(group.getId());
-        userRepository.save(user);
+        addUserGroup(userId, groupId);
 
         log.info("User {} joined group {}", userId, group.getName());
         return populateGroupDetails(group);
@@ -145,17 +143,12 @@ public class GroupService {
         }
 
         // Remove member
-        group.setMembers(group.getMembers().stream()
-                .filter(m -> !m.getUser().equals(userId))
-                .collect(Collectors.toList()));
-        groupRepository.save(group);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(groupId)),
+                new Update().pull("members", new Document("user", userId)), Group.class);
 
         // Remove group from user's groups
-        User user = userRepository.findById(userId).orElse(null);
-        if (user != null && user.getGroups() != null) {
-            user.getGroups().remove(groupId);
-            userRepository.save(user);
-        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)),
+                new Update().pull("groups", groupId), User.class);
 
         log.info("User {} left group {}", userId, group.getName());
         return new MessageResponse("Left the group successfully");
@@ -171,19 +164,49 @@ public class GroupService {
         }
 
         // Remove group from all members' groups
-        for (Group.GroupMember member : group.getMembers()) {
-            User user = userRepository.findById(member.getUser()).orElse(null);
-            if (user != null && user.getGroups() != null) {
-                user.getGroups().remove(groupId);
-                userRepository.save(user);
-            }
-        }
+        List<String> memberIds = group.getMembers().stream()
+                .map(Group.GroupMember::getUser)
+                .collect(Collectors.toList());
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(memberIds)),
+                new Update().pull("groups", groupId), User.class);
 
         groupRepository.delete(group);
         log.info("Group deleted: {}", groupId);
         return new MessageResponse("Group deleted");
     }
 
+    // Only the groups array is written, so concurrent score updates to the user are kept
+    private void addUserGroup(String userId, String groupId) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)),
+                new Update().addToSet("groups", groupId), User.class);
+    }
+
+    // One projected $in query for all creators in the list
+    private List<GroupSummaryResponse> populateCreatorDetails(List<GroupSummaryResponse> groups) {
+        Set<String> creatorIds = groups.stream()
+                .map(GroupSummaryResponse::getCreator)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (creatorIds.isEmpty()) {
+            return groups;
+        }
+        Map<String, User> creators = userRepository.findSummariesByIdIn(creatorIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        for (GroupSummaryResponse group : groups) {
+            User user = creators.get(group.getCreator());
+            if (user != null) {
+                group.setCreatorDetails(Group.UserSummary.builder()
+                        .id(user.getId())
+                        .name(user.getName())
+                        .email(user.getEmail())
+                        .college(user.getCollege())
+                        .build());
+            }
+        }
+        return groups;
+    }
+
     private Group populateGroupDetails(Group group) {
         // Populate creator details
         if (group.getCreator() != null) {
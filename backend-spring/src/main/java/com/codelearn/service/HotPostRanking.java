@@ -0,0 +1,250 @@
+package com.codelearn.service;
+
+import com.codelearn.model.Post;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Time-decayed "hot" ranking of posts. Every view, like, comment and the post's creation adds a weight that
+// halves every half-life. Scores are kept as log2 of the weights scaled to a fixed time origin:
+// log2(w) + t / halfLife. Adding engagement then never touches other posts' scores and orderings never
+// need rescaling. Engagement is summed in memory and a flusher has the server add it to the persisted
+// scores, then refreshes the top posts from them. Readers page through an immutable snapshot of those posts.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotPostRanking {
+
+    public static final double CREATE = 20;
+    public static final double VIEW = 1;
+    public static final double LIKE = 5;
+    public static final double COMMENT = 10;
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingDouble(Entry::getScore)
+            .thenComparing(Entry::getId)
+            .reversed();
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${posts.hot.half-life-hours}")
+    private double halfLifeHours;
+
+    @Value("${posts.hot.top-size}")
+    private int topSize;
+
+    @Value("${posts.hot.flush-interval-ms}")
+    private long flushIntervalMs;
+
+    private final Map<String, Double> pending = new ConcurrentHashMap<>();
+
+    // Guarded by this; only the flusher and removals change them
+    private final TreeSet<Entry> top = new TreeSet<>(ORDER);
+    private final Map<String, Entry> topById = new HashMap<>();
+
+    private volatile List<Entry> snapshot = List.of();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hot-posts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        backfill();
+        load();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flushQuietly();
+    }
+
+    public void record(String postId, double weight) {
+        pending.merge(postId, weight, Double::sum);
+    }
+
+    public synchronized void remove(String postId) {
+        pending.remove(postId);
+        Entry entry = topById.remove(postId);
+        if (entry != null) {
+            top.remove(entry);
+            publish();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Could not write hot post scores", e);
+        }
+    }
+
+    // Up to limit posts strictly after (afterScore, afterId), or from the top when afterId is null
+    public List<Entry> page(Double afterScore, String afterId, int limit) {
+        List<Entry> ranked = snapshot;
+        int from = 0;
+        if (afterId != null) {
+            int index = Collections.binarySearch(ranked, new Entry(afterId, afterScore), ORDER);
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        return ranked.subList(Math.min(from, ranked.size()), Math.min(from + limit, ranked.size()));
+    }
+
+    public void flush() {
+        long now = System.currentTimeMillis();
+        Map<String, Double> weights = new HashMap<>();
+        // Taken out atomically, so engagement racing the flush lands in the next one
+        for (String postId : pending.keySet()) {
+            Double weight = pending.remove(postId);
+            if (weight != null) {
+                weights.put(postId, weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            return;
+        }
+
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        weights.forEach((postId, weight) ->
+                updates.updateOne(new Query(Criteria.where("_id").is(postId)), addScore(score(weight, now))));
+        updates.execute();
+
+        // The top posts follow the stored scores, which may include other instances' engagement; deleted
+        // posts are not found
+        Query query = new Query(Criteria.where("_id").in(weights.keySet()));
+        query.fields().include("hotScore");
+        List<Entry> changed = mongoTemplate.find(query, Post.class).stream()
+                .filter(post -> post.getHotScore() != null)
+                .map(post -> new Entry(post.getId(), post.getHotScore()))
+                .toList();
+        synchronized (this) {
+            changed.forEach(this::offer);
+            publish();
+        }
+    }
+
+    private void offer(Entry entry) {
+        Entry previous = topById.remove(entry.getId());
+        if (previous != null) {
+            top.remove(previous);
+        }
+        top.add(entry);
+        topById.put(entry.getId(), entry);
+        if (top.size() > topSize) {
+            topById.remove(top.pollLast().getId());
+        }
+    }
+
+    private void publish() {
+        snapshot = List.copyOf(top);
+    }
+
+    // Restores the top posts from their persisted scores
+    public void load() {
+        Query query = new Query(Criteria.where("hotScore").exists(true))
+                .with(Sort.by(Sort.Direction.DESC, "hotScore"))
+                .limit(topSize);
+        query.fields().include("hotScore");
+        synchronized (this) {
+            for (Post post : mongoTemplate.find(query, Post.class)) {
+                offer(new Entry(post.getId(), post.getHotScore()));
+            }
+            publish();
+        }
+        log.info("Loaded {} hot posts", snapshot.size());
+    }
+
+    // Posts written before hot scores existed are scored as if all their engagement came at creation
+    private void backfill() {
+        Query query = new Query(Criteria.where("hotScore").exists(false));
+        query.fields().include("createdAt", "views", "likeCount", "likes");
+
+        int scored = 0;
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        try (Stream<Document> posts = mongoTemplate.stream(query, Document.class, "posts")) {
+            for (Document post : (Iterable<Document>) posts::iterator) {
+                Date createdAt = post.getDate("createdAt");
+                // Older builds kept likes as an array that may not have been migrated yet
+                int likes = post.containsKey("likeCount")
+                        ? count(post, "likeCount")
+                        : post.getList("likes", Object.class, List.of()).size();
+                double weight = CREATE + VIEW * count(post, "views") + LIKE * likes;
+                double score = score(weight, createdAt != null ? createdAt.getTime() : System.currentTimeMillis());
+                updates.updateOne(new Query(Criteria.where("_id").is(post.get("_id"))),
+                        new Update().set("hotScore", score));
+                if (++scored % 1000 == 0) {
+                    updates.execute();
+                    updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+                }
+            }
+        }
+        if (scored % 1000 != 0) {
+            updates.execute();
+        }
+        if (scored > 0) {
+            log.info("Scored {} posts for the popular feed", scored);
+        }
+    }
+
+    private static int count(Document post, String field) {
+        Number value = post.get(field, Number.class);
+        return value != null ? value.intValue() : 0;
+    }
+
+    private double score(double weight, long atMillis) {
+        return Math.log(weight) / Math.log(2) + atMillis / (halfLifeHours * 3_600_000);
+    }
+
+    // hotScore = log2(2^hotScore + 2^score) without leaving log space, or score for a post not scored yet.
+    // Evaluated by the server, so concurrent flushes add up instead of overwriting each other.
+    private static AggregationUpdate addScore(double score) {
+        Document high = new Document("$max", List.of("$hotScore", score));
+        Document low = new Document("$min", List.of("$hotScore", score));
+        Document sum = new Document("$add", List.of(high, new Document("$divide", List.of(
+                new Document("$ln", new Document("$add", List.of(1,
+                        new Document("$pow", List.of(2, new Document("$subtract", List.of(low, high))))))),
+                Math.log(2)))));
+        Document hotScore = new Document("$cond", List.of(
+                new Document("$gt", Arrays.asList("$hotScore", null)), sum, score));
+        return AggregationUpdate.from(List.of(context -> new Document("$set", new Document("hotScore", hotScore))));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final String id;
+        private final double score;
+    }
+}
@@ -1,19 +1,32 @@
 package com.codelearn.service;
 
 import com.codelearn.dto.response.LeaderboardResponse;
+import com.codelearn.dto.response.PercentileResponse;
 import com.codelearn.dto.response.UserResponse;
+import com.codelearn.exception.BadRequestException;
 import com.codelearn.exception.ResourceNotFoundException;
+import com.codelearn.leaderboard.LeaderboardEngine;
+import com.codelearn.leaderboard.LeaderboardEntry;
+import com.codelearn.leaderboard.LeaderboardKeys;
+import com.codelearn.leaderboard.LeaderboardSnapshot;
+import com.codelearn.leaderboard.LeaderboardWindow;
 import com.codelearn.model.Group;
 import com.codelearn.model.User;
 import com.codelearn.repository.GroupRepository;
 import com.codelearn.repository.UserRepository;
+import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Slf4j
 @Service
@@ -22,126 +35,178 @@ public class LeaderboardService {
 
     private final UserRepository userRepository;
     private final GroupRepository groupRepository;
+    private final LeaderboardEngine leaderboardEngine;
+    private final LeaderboardSnapshotService leaderboardSnapshotService;
 
-    public LeaderboardResponse getCollegeLeaderboard(String userId) {
-        User currentUser = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+    private static final int MAX_NEIGHBOR_RADIUS = 50;
 
-        List<User> users = userRepository.findTop100ByCollegeOrderByCodingScoreDesc(currentUser.getCollege());
-        List<UserResponse> leaderboard = users.stream()
-                .map(this::mapToUserResponse)
-                .collect(Collectors.toList());
+    @Value("${leaderboard.groups.cache-ttl-ms}")
+    private long groupCacheTtlMs;
 
-        int userRank = IntStream.range(0, users.size())
-                .filter(i -> users.get(i).getId().equals(userId))
-                .findFirst()
-                .orElse(-1) + 1;
+    @Value("${leaderboard.groups.member-limit}")
+    private int groupMemberLimit;
 
-        return LeaderboardResponse.builder()
-                .leaderboard(leaderboard)
-                .currentUser(LeaderboardResponse.CurrentUserRank.builder()
-                        .id(currentUser.getId())
-                        .name(currentUser.getName())
-                        .email(currentUser.getEmail())
-                        .college(currentUser.getCollege())
-                        .department(currentUser.getDepartment())
-                        .year(currentUser.getYear())
-                        .codingScore(currentUser.getCodingScore())
-                        .rank(userRank > 0 ? userRank : "Not Ranked")
-                        .build())
-                .build();
+    private volatile CachedGroups cachedGroups;
+
+    public LeaderboardResponse getCollegeLeaderboard(String userId) {
+        User currentUser = findUser(userId);
+        return topOf(LeaderboardKeys.college(currentUser.getCollege()), currentUser);
     }
 
     public LeaderboardResponse getGlobalLeaderboard(String userId) {
-        User currentUser = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        User currentUser = findUser(userId);
+        return topOf(LeaderboardKeys.global(), currentUser);
+    }
 
-        List<User> users = userRepository.findTop100ByOrderByCodingScoreDesc();
-        List<UserResponse> leaderboard = users.stream()
-                .map(this::mapToUserResponse)
-                .collect(Collectors.toList());
+    // Rebuilt at most once per TTL; the result is shared read-only by every caller until then
+    public List<Group> getGroupLeaderboard() {
+        CachedGroups cached = cachedGroups;
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            return cached.groups;
+        }
+        synchronized (this) {
+            cached = cachedGroups;
+            if (cached == null || cached.expiresAt <= System.currentTimeMillis()) {
+                cached = new CachedGroups(loadGroupLeaderboard(), System.currentTimeMillis() + groupCacheTtlMs);
+                cachedGroups = cached;
+            }
+            return cached.groups;
+        }
+    }
 
-        int userRank = IntStream.range(0, users.size())
-                .filter(i -> users.get(i).getId().equals(userId))
-                .findFirst()
-                .orElse(-1) + 1;
+    // All members of all listed groups are resolved with a single $in query; each group then shows
+    // only its highest scoring members, with memberCount giving the full size
+    private List<Group> loadGroupLeaderboard() {
+        List<Group> groups = groupRepository.findTop50ByOrderByGroupScoreDesc();
+        Set<String> memberIds = groups.stream()
+                .filter(group -> group.getMembers() != null)
+                .flatMap(group -> group.getMembers().stream())
+                .map(Group.GroupMember::getUser)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, Group.UserSummary> summaries = resolveMemberSummaries(memberIds);
+
+        for (Group group : groups) {
+            List<Group.GroupMember> members = group.getMembers() != null ? group.getMembers() : List.of();
+            group.setMemberCount(members.size());
+            group.setMemberDetails(members.stream()
+                    .map(member -> Group.GroupMemberDetails.builder()
+                            .user(member.getUser())
+                            .role(member.getRole())
+                            .userDetails(summaries.get(member.getUser()))
+                            .build())
+                    .sorted(Comparator.comparing(LeaderboardService::memberScore).reversed())
+                    .limit(groupMemberLimit)
+                    .collect(Collectors.toList()));
+        }
+        return List.copyOf(groups);
+    }
 
-        return LeaderboardResponse.builder()
-                .leaderboard(leaderboard)
-                .currentUser(LeaderboardResponse.CurrentUserRank.builder()
-                        .id(currentUser.getId())
-                        .name(currentUser.getName())
-                        .email(currentUser.getEmail())
-                        .college(currentUser.getCollege())
-                        .department(currentUser.getDepartment())
-                        .year(currentUser.getYear())
-                        .codingScore(currentUser.getCodingScore())
-                        .rank(userRank > 0 ? userRank : "Not Ranked")
-                        .build())
-                .build();
+    private Map<String, Group.UserSummary> resolveMemberSummaries(Set<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findScoreSummariesByIdIn(userIds).stream()
+                .collect(Collectors.toMap(User::getId, user -> Group.UserSummary.builder()
+                        .id(user.getId())
+                        .name(user.getName())
+                        .codingScore(user.getCodingScore())
+                        .build()));
     }
 
-    public List<Group> getGroupLeaderboard() {
-        List<Group> groups = groupRepository.findTop50ByOrderByGroupScoreDesc();
-        return groups.stream()
-                .map(group -> {
-                    // Populate member details
-                    if (group.getMembers() != null) {
-                        List<Group.GroupMemberDetails> memberDetails = group.getMembers().stream()
-                                .map(member -> {
-                                    Group.GroupMemberDetails details = Group.GroupMemberDetails.builder()
-                                            .user(member.getUser())
-                                            .role(member.getRole())
-                                            .build();
-                                    userRepository.findById(member.getUser()).ifPresent(user -> {
-                                        details.setUserDetails(Group.UserSummary.builder()
-                                                .id(user.getId())
-                                                .name(user.getName())
-                                                .codingScore(user.getCodingScore())
-                                                .build());
-                                    });
-                                    return details;
-                                })
-                                .collect(Collectors.toList());
-                        group.setMemberDetails(memberDetails);
-                    }
-                    return group;
-                })
-                .collect(Collectors.toList());
+    private static int memberScore(Group.GroupMemberDetails details) {
+        Group.UserSummary user = details.getUserDetails();
+        return user != null && user.getCodingScore() != null ? user.getCodingScore() : 0;
     }
 
     public LeaderboardResponse getDepartmentLeaderboard(String userId, String department) {
-        User currentUser = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+        User currentUser = findUser(userId);
+        return topOf(LeaderboardKeys.department(currentUser.getCollege(), department), currentUser);
+    }
 
-        List<User> users = userRepository.findTop100ByCollegeAndDepartmentOrderByCodingScoreDesc(
-                currentUser.getCollege(), department);
-        List<UserResponse> leaderboard = users.stream()
-                .map(this::mapToUserResponse)
-                .collect(Collectors.toList());
+    // Ranks by the points earned in the current week or month rather than lifetime codingScore
+    public LeaderboardResponse getWindowedLeaderboard(String userId, LeaderboardWindow window, String scope) {
+        User currentUser = findUser(userId);
+        String board = LeaderboardKeys.windowed(window, window.bucket(Instant.now()), boardFor(scope, currentUser));
 
-        int userRank = IntStream.range(0, users.size())
-                .filter(i -> users.get(i).getId().equals(userId))
-                .findFirst()
-                .orElse(-1) + 1;
+        LeaderboardResponse response = topOf(board, currentUser);
+        long rank = leaderboardEngine.rank(board, userId);
+        List<LeaderboardEntry> own = rank >= 0 ? leaderboardEngine.range(board, rank, 1) : List.of();
+        response.getCurrentUser().setCodingScore(own.isEmpty() ? 0 : (int) own.get(0).getScore());
+        return response;
+    }
 
+    // The users ranked just above and below the current user on one of their boards
+    public LeaderboardResponse getNeighbors(String userId, String scope, int radius) {
+        User currentUser = findUser(userId);
+        String board = boardFor(scope, currentUser);
+        int window = Math.max(0, Math.min(radius, MAX_NEIGHBOR_RADIUS));
+
+        long rank = leaderboardEngine.rank(board, userId);
+        List<LeaderboardEntry> entries = rank >= 0
+                ? leaderboardEngine.range(board, Math.max(0, rank - window), 2 * window + 1)
+                : List.of();
+        long firstRank = Math.max(0, rank - window);
+        return buildResponse(leaderboardSnapshotService.hydrate(entries, firstRank), rank, currentUser);
+    }
+
+    // Shared, pre-serialized top rows for the board; cheap enough to serve on every page load
+    public LeaderboardSnapshot getTopSnapshot(String userId, String scope, String department) {
+        User currentUser = findUser(userId);
+        if (department != null && "department".equals(scope)) {
+            return leaderboardSnapshotService.getSnapshot(
+                    LeaderboardKeys.department(currentUser.getCollege(), department));
+        }
+        return leaderboardSnapshotService.getSnapshot(boardFor(scope, currentUser));
+    }
+
+    public LeaderboardResponse.CurrentUserRank getRank(String userId, String scope) {
+        User currentUser = findUser(userId);
+        return currentUserRank(currentUser, leaderboardEngine.rank(boardFor(scope, currentUser), userId));
+    }
+
+    // Exact, from the same order-statistic boards as the ranks: O(log n) however large the board is
+    public PercentileResponse getPercentile(String userId, String scope) {
+        User currentUser = findUser(userId);
+        String board = boardFor(scope, currentUser);
+        long rank = leaderboardEngine.rank(board, userId);
+        long total = leaderboardEngine.size(board);
+        if (rank < 0 || total == 0) {
+            return PercentileResponse.builder().scope(scope).total(total).build();
+        }
+        return PercentileResponse.builder()
+                .scope(scope)
+                .rank(rank + 1)
+                .total(total)
+                .topPercent(Math.ceil((rank + 1) * 1000.0 / total) / 10)
+                .build();
+    }
+
+    // The top rows come from the shared snapshot; only the caller's rank is looked up per request
+    private LeaderboardResponse topOf(String board, User currentUser) {
+        List<UserResponse> rows = leaderboardSnapshotService.getSnapshot(board).getRows();
+        long rank = leaderboardEngine.rank(board, currentUser.getId());
+        return buildResponse(rows, rank, currentUser);
+    }
+
+    private String boardFor(String scope, User user) {
+        return switch (scope) {
+            case "global" -> LeaderboardKeys.global();
+            case "college" -> LeaderboardKeys.college(user.getCollege());
+            case "department" -> LeaderboardKeys.department(user.getCollege(), user.getDepartment());
+            default -> throw new BadRequestException("Unknown leaderboard scope: " + scope);
+        };
+    }
+
+    private LeaderboardResponse buildResponse(List<UserResponse> rows, long rank, User currentUser) {
         return LeaderboardResponse.builder()
-                .leaderboard(leaderboard)
-                .currentUser(LeaderboardResponse.CurrentUserRank.builder()
-                        .id(currentUser.getId())
-                        .name(currentUser.getName())
-                        .email(currentUser.getEmail())
-                        .college(currentUser.getCollege())
-                        .department(currentUser.getDepartment())
-                        .year(currentUser.getYear())
-                        .codingScore(currentUser.getCodingScore())
-                        .rank(userRank > 0 ? userRank : "Not Ranked")
-                        .build())
+                .leaderboard(rows)
+                .currentUser(currentUserRank(currentUser, rank))
                 .build();
     }
 
-    private UserResponse mapToUserResponse(User user) {
-        return UserResponse.builder()
+    private LeaderboardResponse.CurrentUserRank currentUserRank(User user, long rank) {
+        return LeaderboardResponse.CurrentUserRank.builder()
                 .id(user.getId())
                 .name(user.getName())
                 .email(user.getEmail())
@@ -149,6 +214,18 @@ public class LeaderboardService {
                 .department(user.getDepartment())
                 .year(user.getYear())
                 .codingScore(user.getCodingScore())
+                .rank(rank >= 0 ? (Object) (rank + 1) : "Not Ranked")
                 .build();
     }
+
+    private User findUser(String userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+    }
+
+    @AllArgsConstructor
+    private static class CachedGroups {
+        private final List<Group> groups;
+        private final long expiresAt;
+    }
 }
@@ -0,0 +1,188 @@
+package com.codelearn.service;
+
+import com.codelearn.dto.response.UserResponse;
+import com.codelearn.event.ScoreChangedEvent;
+import com.codelearn.event.UserProfileChangedEvent;
+import com.codelearn.leaderboard.LeaderboardEngine;
+import com.codelearn.leaderboard.LeaderboardEntry;
+import com.codelearn.leaderboard.LeaderboardKeys;
+import com.codelearn.leaderboard.LeaderboardSnapshot;
+import com.codelearn.leaderboard.LeaderboardWindow;
+import com.codelearn.model.User;
+import com.codelearn.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Keeps the top of each requested board as an immutable, pre-serialized snapshot. Score changes only mark
+// boards dirty; a background refresh rebuilds dirty snapshots, so page loads never re-rank or re-serialize.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardSnapshotService {
+
+    public static final int TOP_SIZE = 100;
+
+    private final LeaderboardEngine leaderboardEngine;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${leaderboard.snapshot.refresh-ms}")
+    private long refreshMs;
+
+    private final Map<String, LeaderboardSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "leaderboard-snapshots");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        refresher.scheduleWithFixedDelay(this::refreshDirty, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdownNow();
+    }
+
+    // Only boards with members are kept, so board names made up by callers never accumulate
+    public LeaderboardSnapshot getSnapshot(String board) {
+        LeaderboardSnapshot snapshot = snapshots.get(board);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        if (leaderboardEngine.size(board) == 0) {
+            return build(board);
+        }
+        return snapshots.computeIfAbsent(board, this::build);
+    }
+
+    // Rows come from the engine in rank order; one $in query fills in the user details
+    public List<UserResponse> hydrate(List<LeaderboardEntry> entries, long firstRank) {
+        Map<String, User> users = userRepository.findSummariesByIdIn(
+                        entries.stream().map(LeaderboardEntry::getMember).toList()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<UserResponse> rows = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            LeaderboardEntry entry = entries.get(i);
+            User user = users.get(entry.getMember());
+            if (user == null) {
+                continue;
+            }
+            rows.add(UserResponse.builder()
+                    .id(user.getId())
+                    .name(user.getName())
+                    .email(user.getEmail())
+                    .college(user.getCollege())
+                    .department(user.getDepartment())
+                    .year(user.getYear())
+                    .codingScore((int) entry.getScore())
+                    .rank((int) (firstRank + i + 1))
+                    .build());
+        }
+        return rows;
+    }
+
+    @EventListener
+    public void onScoreChanged(ScoreChangedEvent event) {
+        markDirty(event.getCollege(), event.getDepartment());
+    }
+
+    // Names and departments appear in the rows, so both the old and new boards go stale
+    @EventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        markDirty(event.getCollege(), event.getDepartment());
+        if (event.getPreviousCollege() != null) {
+            markDirty(event.getPreviousCollege(), event.getPreviousDepartment());
+        }
+    }
+
+    // The user's lifetime boards and the boards of the current weekly and monthly buckets
+    private void markDirty(String college, String department) {
+        Instant now = Instant.now();
+        for (String board : LeaderboardKeys.boardsFor(college, department)) {
+            dirty.add(board);
+            for (LeaderboardWindow window : LeaderboardWindow.values()) {
+                dirty.add(LeaderboardKeys.windowed(window, window.bucket(now), board));
+            }
+        }
+    }
+
+    private void refreshDirty() {
+        try {
+            // Snapshots of windows that have rolled over are never read again
+            Instant now = Instant.now();
+            snapshots.keySet().removeIf(board -> isPastWindow(board, now));
+
+            for (String board : List.copyOf(dirty)) {
+                dirty.remove(board);
+                // Boards nobody has asked for are built on first read instead; emptied boards are dropped
+                if (snapshots.containsKey(board)) {
+                    if (leaderboardEngine.size(board) == 0) {
+                        snapshots.remove(board);
+                    } else {
+                        snapshots.put(board, build(board));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("Leaderboard snapshot refresh failed", e);
+        }
+    }
+
+    private static boolean isPastWindow(String board, Instant now) {
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            String prefix = window.getName() + ":";
+            if (board.startsWith(prefix)) {
+                return !board.startsWith(LeaderboardKeys.windowed(window, window.bucket(now), ""));
+            }
+        }
+        return false;
+    }
+
+    private LeaderboardSnapshot build(String board) {
+        List<UserResponse> rows = List.copyOf(hydrate(leaderboardEngine.range(board, 0, TOP_SIZE), 0));
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(rows);
+            return new LeaderboardSnapshot(board, rows, json, etag(json), Instant.now());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize leaderboard " + board, e);
+        }
+    }
+
+    // Derived from the content, so unchanged boards keep their ETag across refreshes and nodes
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.codelearn.service;
+
+import com.codelearn.model.Like;
+import com.codelearn.repository.LikeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Likes as a set of (target, user) pairs. Each toggle is one insert or one delete against the unique index,
+// so concurrent toggles settle on a consistent state and the caller adjusts the counter by the returned delta.
+@Service
+@RequiredArgsConstructor
+public class LikeService {
+
+    private final LikeRepository likeRepository;
+
+    // +1 if the user now likes the target, -1 if the like was taken back
+    public int toggle(String targetType, String target, String userId) {
+        try {
+            likeRepository.insert(Like.builder().targetType(targetType).target(target).user(userId).build());
+            return 1;
+        } catch (DuplicateKeyException e) {
+            return likeRepository.deleteByTargetTypeAndTargetAndUser(targetType, target, userId) > 0 ? -1 : 0;
+        }
+    }
+
+    // Which of the given targets the user has liked, in one indexed query
+    public Set<String> likedBy(String targetType, Collection<String> targets, String userId) {
+        if (targets.isEmpty()) {
+            return Set.of();
+        }
+        return likeRepository.findByTargetTypeAndTargetInAndUser(targetType, targets, userId).stream()
+                .map(Like::getTarget)
+                .collect(Collectors.toSet());
+    }
+
+    public void deleteAll(String targetType, String target) {
+        likeRepository.deleteByTargetTypeAndTarget(targetType, target);
+    }
+}
@@ -2,19 +2,41 @@ package com.codelearn.service;
 
 import com.codelearn.dto.request.CreatePostRequest;
 import com.codelearn.dto.request.UpdatePostRequest;
+import com.codelearn.dto.response.CursorPage;
+import com.codelearn.dto.response.PostSummaryResponse;
 import com.codelearn.exception.BadRequestException;
 import com.codelearn.exception.ResourceNotFoundException;
 import com.codelearn.exception.UnauthorizedException;
+import com.codelearn.model.Like;
 import com.codelearn.model.Post;
-import com.codelearn.model.User;
 import com.codelearn.repository.PostRepository;
-import com.codelearn.repository.UserRepository;
+import com.codelearn.search.PostSearchEngine;
+import com.codelearn.search.SearchHit;
+import com.codelearn.util.Cursors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,37 +45,194 @@ import java.util.stream.Collectors;
 public class PostService {
 
     private final PostRepository postRepository;
-    private final UserRepository userRepository;
-
-    public List<Post> getAllPosts(String language, String difficulty, String search, String sortBy) {
-        List<Post> posts;
-
-        if (search != null && !search.isEmpty()) {
-            posts = postRepository.searchByTitleOrProblem(search);
-        } else if (language != null && difficulty != null) {
-            posts = postRepository.findByLanguageAndDifficultyOrderByCreatedAtDesc(language, difficulty);
-        } else if (language != null) {
-            posts = postRepository.findByLanguageOrderByCreatedAtDesc(language);
-        } else if (difficulty != null) {
-            posts = postRepository.findByDifficultyOrderByCreatedAtDesc(difficulty);
+    private final ScoreService scoreService;
+    private final MongoTemplate mongoTemplate;
+    private final PostSearchEngine postSearchEngine;
+    private final PostViewCounter postViewCounter;
+    private final LikeService likeService;
+    private final HotPostRanking hotPostRanking;
+    private final AuthorSummaryCache authorSummaryCache;
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int PROBLEM_PREVIEW_LENGTH = 150;
+
+    @Value("${posts.page-size}")
+    private int defaultPageSize;
+
+    // Keyset-paginated feed: newest first on (createdAt, _id), or most viewed first on (views, likeCount, _id)
+    // for "views". Each page is an index range scan that starts where the previous one ended, so its cost
+    // does not depend on how deep the reader has scrolled or how many posts exist. "popular" pages through
+    // the in-memory hot ranking instead.
+    public CursorPage<PostSummaryResponse> getAllPosts(String language, String difficulty, String search, String sortBy,
+                                        String cursor, Integer limit) {
+        int pageSize = Math.min(Math.max(limit != null ? limit : defaultPageSize, 1), MAX_PAGE_SIZE);
+        if (search != null && !search.isBlank()) {
+            return searchPosts(search, cursor, pageSize);
+        }
+
+        List<Criteria> filters = new ArrayList<>();
+        boolean mostViewed = false;
+        if (language != null || difficulty != null) {
+            if (language != null) {
+                filters.add(Criteria.where("language").is(language));
+            }
+            if (difficulty != null) {
+                filters.add(Criteria.where("difficulty").is(difficulty));
+            }
         } else if ("popular".equals(sortBy)) {
-            posts = postRepository.findAllByOrderByViewsDescLikesDesc();
+            return hotPosts(cursor, pageSize);
         } else {
-            posts = postRepository.findAllByOrderByCreatedAtDesc();
+            mostViewed = "views".equals(sortBy);
+        }
+
+        if (cursor != null && !cursor.isEmpty()) {
+            filters.add(mostViewed ? afterMostViewed(Cursors.decode(cursor, 3)) : afterLatest(Cursors.decode(cursor, 2)));
+        }
+
+        Criteria criteria = filters.isEmpty() ? new Criteria() : new Criteria().andOperator(filters);
+        List<PostSummaryResponse> posts = findSummaries(criteria, mostViewed
+                ? Sort.by(Sort.Direction.DESC, "views", "likeCount", "_id")
+                : Sort.by(Sort.Direction.DESC, "createdAt", "_id"), pageSize + 1);
+
+        String nextCursor = null;
+        if (posts.size() > pageSize) {
+            posts = posts.subList(0, pageSize);
+            PostSummaryResponse last = posts.get(pageSize - 1);
+            nextCursor = mostViewed
+                    ? Cursors.encode(last.getViews(), last.getLikeCount(), last.getId())
+                    : Cursors.encode(last.getCreatedAt(), last.getId());
         }
 
-        return posts.stream()
-                .map(this::populateAuthorDetails)
+        populateSummaryAuthors(posts);
+        return CursorPage.<PostSummaryResponse>builder()
+                .items(posts)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Relevance-ordered pages from the search engine, keyed on (score, _id) of the last hit
+    private CursorPage<PostSummaryResponse> searchPosts(String search, String cursor, int pageSize) {
+        SearchHit after = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] key = Cursors.decode(cursor, 2);
+            try {
+                after = new SearchHit(new ObjectId(key[1]).toHexString(), Double.parseDouble(key[0]));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        List<SearchHit> hits = postSearchEngine.search(search, after, pageSize + 1);
+        String nextCursor = null;
+        if (hits.size() > pageSize) {
+            hits = hits.subList(0, pageSize);
+            SearchHit last = hits.get(pageSize - 1);
+            nextCursor = Cursors.encode(last.getScore(), last.getId());
+        }
+
+        List<PostSummaryResponse> posts = summariesInOrder(hits.stream().map(SearchHit::getId).toList());
+        populateSummaryAuthors(posts);
+        return CursorPage.<PostSummaryResponse>builder()
+                .items(posts)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Pages of the hot ranking, keyed on (hotScore, _id) of the last post. The ranking is already ordered in
+    // memory, so a page costs one $in lookup of its posts whatever the size of the collection.
+    private CursorPage<PostSummaryResponse> hotPosts(String cursor, int pageSize) {
+        Double afterScore = null;
+        String afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] key = Cursors.decode(cursor, 2);
+            try {
+                afterScore = Double.parseDouble(key[0]);
+                afterId = new ObjectId(key[1]).toHexString();
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        List<HotPostRanking.Entry> ranked = hotPostRanking.page(afterScore, afterId, pageSize + 1);
+        String nextCursor = null;
+        if (ranked.size() > pageSize) {
+            ranked = ranked.subList(0, pageSize);
+            HotPostRanking.Entry last = ranked.get(pageSize - 1);
+            nextCursor = Cursors.encode(last.getScore(), last.getId());
+        }
+
+        List<PostSummaryResponse> posts = summariesInOrder(ranked.stream().map(HotPostRanking.Entry::getId).toList());
+        populateSummaryAuthors(posts);
+        return CursorPage.<PostSummaryResponse>builder()
+                .items(posts)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Summaries of the given posts in the given order, skipping any that have been deleted
+    private List<PostSummaryResponse> summariesInOrder(List<String> ids) {
+        Map<String, PostSummaryResponse> found = findSummaries(Criteria.where("_id").in(ids), null, ids.size()).stream()
+                .collect(Collectors.toMap(PostSummaryResponse::getId, Function.identity()));
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
+    // Feed cards are projected on the server: the code body is never read and the problem statement is cut to
+    // a preview, so a page costs a few hundred bytes per post whatever the size of the posts
+    private List<PostSummaryResponse> findSummaries(Criteria criteria, Sort sort, int limit) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(Aggregation.match(criteria));
+        if (sort != null) {
+            stages.add(Aggregation.sort(sort));
+        }
+        stages.add(Aggregation.limit(limit));
+        stages.add(Aggregation.project("author", "title", "language", "tags", "difficulty", "likeCount", "views",
+                        "createdAt")
+                .and(StringOperators.valueOf(ConditionalOperators.ifNull("problem").then(""))
+                        .substringCP(0, PROBLEM_PREVIEW_LENGTH))
+                .as("problemPreview"));
+
+        return new ArrayList<>(mongoTemplate.aggregate(Aggregation.newAggregation(Post.class, stages),
+                PostSummaryResponse.class).getMappedResults());
+    }
+
+    // Continue strictly after the last post returned, in (createdAt, _id) descending order
+    private static Criteria afterLatest(String[] key) {
+        try {
+            LocalDateTime createdAt = LocalDateTime.parse(key[0]);
+            return new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(createdAt),
+                    Criteria.where("createdAt").is(createdAt).and("_id").lt(new ObjectId(key[1])));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    // Continue strictly after the last post returned, in (views, likeCount, _id) descending order
+    private static Criteria afterMostViewed(String[] key) {
+        try {
+            Integer views = Integer.valueOf(key[0]);
+            Integer likeCount = Integer.valueOf(key[1]);
+            return new Criteria().orOperator(
+                    Criteria.where("views").lt(views),
+                    Criteria.where("views").is(views).and("likeCount").lt(likeCount),
+                    Criteria.where("views").is(views).and("likeCount").is(likeCount)
+                            .and("_id").lt(new ObjectId(key[2])));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
     public Post getPostById(String id) {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", id));
 
-        // Increment views
-        post.setViews(post.getViews() + 1);
-        postRepository.save(post);
+        // Counted in memory and flushed in batches; the reader still sees their own view
+        postViewCounter.record(id);
+        hotPostRanking.record(id, HotPostRanking.VIEW);
+        post.setViews((post.getViews() != null ? post.getViews() : 0) + (int) postViewCounter.pendingViews(id));
 
         return populateAuthorDetails(post);
     }
@@ -68,17 +247,15 @@ public class PostService {
                 .tags(request.getTags() != null ? request.getTags() : new ArrayList<>())
                 .difficulty(request.getDifficulty() != null ? request.getDifficulty() : "Medium")
                 .views(0)
-                .likes(new ArrayList<>())
+                .likeCount(0)
                 .build();
 
         post = postRepository.save(post);
+        postSearchEngine.index(post);
+        hotPostRanking.record(post.getId(), HotPostRanking.CREATE);
 
         // Award points for posting
-        User user = userRepository.findById(userId).orElse(null);
-        if (user != null) {
-            user.setCodingScore(user.getCodingScore() + 10);
-            userRepository.save(user);
-        }
+        scoreService.award(ScoreService.POST, post.getId(), userId, 10);
 
         log.info("New post created by user {}: {}", userId, post.getTitle());
         return populateAuthorDetails(post);
@@ -93,14 +270,23 @@ public class PostService {
             throw new UnauthorizedException("User not authorized");
         }
 
-        if (request.getTitle() != null) post.setTitle(request.getTitle());
-        if (request.getProblem() != null) post.setProblem(request.getProblem());
-        if (request.getCode() != null) post.setCode(request.getCode());
-        if (request.getLanguage() != null) post.setLanguage(request.getLanguage());
-        if (request.getTags() != null) post.setTags(request.getTags());
-        if (request.getDifficulty() != null) post.setDifficulty(request.getDifficulty());
+        // Only the edited fields are written, so counters updated elsewhere (views) are never overwritten
+        Update update = new Update();
+        if (request.getTitle() != null) update.set("title", request.getTitle());
+        if (request.getProblem() != null) update.set("problem", request.getProblem());
+        if (request.getCode() != null) update.set("code", request.getCode());
+        if (request.getLanguage() != null) update.set("language", request.getLanguage());
+        if (request.getTags() != null) update.set("tags", request.getTags());
+        if (request.getDifficulty() != null) update.set("difficulty", request.getDifficulty());
 
-        post = postRepository.save(post);
+        if (!update.getUpdateObject().isEmpty()) {
+            post = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(postId)), update,
+                    FindAndModifyOptions.options().returnNew(true), Post.class);
+            if (post == null) {
+                throw new ResourceNotFoundException("Post", "id", postId);
+            }
+        }
+        postSearchEngine.index(post);
         return populateAuthorDetails(post);
     }
 
@@ -114,49 +300,71 @@ public class PostService {
         }
 
         postRepository.delete(post);
+        likeService.deleteAll(Like.POST, postId);
+        hotPostRanking.remove(postId);
+        postSearchEngine.remove(postId);
         log.info("Post deleted: {}", postId);
     }
 
+    // Likes live in their own collection, one document per (post, user); the post only carries the count
     public Post likePost(String userId, String postId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
 
-        List<String> likes = post.getLikes();
-        if (likes == null) {
-            likes = new ArrayList<>();
+        int delta = likeService.toggle(Like.POST, postId, userId);
+        if (delta != 0) {
+            Post updated = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(postId)),
+                    new Update().inc("likeCount", delta),
+                    FindAndModifyOptions.options().returnNew(true), Post.class);
+            if (updated != null) {
+                post = updated;
+            }
         }
-
-        int likeIndex = likes.indexOf(userId);
-        if (likeIndex > -1) {
-            likes.remove(likeIndex);
-        } else {
-            likes.add(userId);
+        if (delta > 0) {
+            hotPostRanking.record(postId, HotPostRanking.LIKE);
             // Award points to author
-            User author = userRepository.findById(post.getAuthor()).orElse(null);
-            if (author != null) {
-                author.setCodingScore(author.getCodingScore() + 2);
-                userRepository.save(author);
-            }
+            scoreService.award(ScoreService.POST_LIKE, postId + ":" + userId, post.getAuthor(), 2);
         }
 
-        post.setLikes(likes);
-        post = postRepository.save(post);
+        post.setLikedByMe(delta > 0);
         return populateAuthorDetails(post);
     }
 
-    private Post populateAuthorDetails(Post post) {
-        if (post.getAuthor() != null) {
-            userRepository.findById(post.getAuthor()).ifPresent(user -> {
-                post.setAuthorDetails(Post.UserSummary.builder()
-                        .id(user.getId())
-                        .name(user.getName())
-                        .email(user.getEmail())
-                        .college(user.getCollege())
-                        .codingScore(user.getCodingScore())
-                        .bio(user.getBio())
-                        .build());
-            });
+    // Which of the given posts the user has liked, answered with a single indexed lookup
+    public Set<String> getLikedPosts(String userId, List<String> postIds) {
+        if (postIds.size() > MAX_PAGE_SIZE) {
+            throw new BadRequestException("At most " + MAX_PAGE_SIZE + " ids per request");
         }
+        return likeService.likedBy(Like.POST, postIds, userId);
+    }
+
+    private Post populateAuthorDetails(Post post) {
+        populateAuthorDetails(List.of(post));
         return post;
     }
+
+    private void populateSummaryAuthors(List<PostSummaryResponse> posts) {
+        Map<String, Post.UserSummary> authors = authorSummaries(posts.stream()
+                .map(PostSummaryResponse::getAuthor)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        for (PostSummaryResponse post : posts) {
+            post.setAuthorDetails(authors.get(post.getAuthor()));
+        }
+    }
+
+    private void populateAuthorDetails(List<Post> posts) {
+        Map<String, Post.UserSummary> authors = authorSummaries(posts.stream()
+                .map(Post::getAuthor)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        for (Post post : posts) {
+            post.setAuthorDetails(authors.get(post.getAuthor()));
+        }
+    }
+
+    // Cached summaries; misses for the whole page are loaded with one projected $in query
+    private Map<String, Post.UserSummary> authorSummaries(Set<String> authorIds) {
+        return authorIds.isEmpty() ? Map.of() : authorSummaryCache.resolve(authorIds);
+    }
 }
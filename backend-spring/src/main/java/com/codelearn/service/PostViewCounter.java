@@ -0,0 +1,87 @@
+package com.codelearn.service;
+
+import com.codelearn.model.Post;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Counts post views in memory and writes them as one bulk of $inc per flush, so reading a post never
+// writes to it. Counts not yet flushed are lost if the process dies; a clean shutdown flushes them.
+// A flush takes each post's count out of the map atomically, so a view racing it lands in the next flush.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostViewCounter {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${posts.view-flush-interval-ms}")
+    private long flushIntervalMs;
+
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "post-views");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flushQuietly();
+    }
+
+    public void record(String postId) {
+        pending.merge(postId, 1L, Long::sum);
+    }
+
+    // Views recorded since the last flush, to add to the stored count when showing a post
+    public long pendingViews(String postId) {
+        return pending.getOrDefault(postId, 0L);
+    }
+
+    public void flush() {
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        int posts = 0;
+        for (String postId : pending.keySet()) {
+            Long views = pending.remove(postId);
+            if (views == null) {
+                continue;
+            }
+            updates.updateOne(new Query(Criteria.where("_id").is(postId)), new Update().inc("views", views));
+            posts++;
+        }
+        if (posts > 0) {
+            updates.execute();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Could not write post views", e);
+        }
+    }
+}
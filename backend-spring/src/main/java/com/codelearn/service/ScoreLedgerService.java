@@ -0,0 +1,266 @@
+package com.codelearn.service;
+
+import com.codelearn.event.ScoreChangedEvent;
+import com.codelearn.leaderboard.LeaderboardIndexer;
+import com.codelearn.model.ScoreEvent;
+import com.codelearn.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Append-only ledger behind every codingScore change. Requests only insert an event; a background
+// aggregator claims unapplied events in batches, applies one $inc per user and then publishes the score
+// changes. A user keeps the id of every batch applied to them until the batch's events are marked applied,
+// so a batch that is retried after a crash is never counted twice however many batches ran since, and
+// codingScore can always be recomputed by summing the ledger.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScoreLedgerService {
+
+    private static final String BASELINE_MARKER = "baseline";
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LeaderboardIndexer leaderboardIndexer;
+
+    @Value("${score.ledger.flush-interval-ms}")
+    private long flushIntervalMs;
+
+    @Value("${score.ledger.batch-size}")
+    private int batchSize;
+
+    @Value("${score.ledger.stale-claim-ms}")
+    private long staleClaimMs;
+
+    @Value("${score.ledger.rebuild-on-startup}")
+    private boolean rebuildOnStartup;
+
+    private final ScheduledExecutorService aggregator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "score-ledger");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Runs before the web server accepts requests, so the baseline never includes points from the ledger
+    @PostConstruct
+    void start() {
+        recordBaseline();
+        if (rebuildOnStartup) {
+            rebuildScores();
+        }
+        aggregator.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        aggregator.shutdown();
+        aggregator.awaitTermination(5, TimeUnit.SECONDS);
+        flushQuietly();
+    }
+
+    public void record(String reason, String sourceId, String userId, int points) {
+        try {
+            mongoTemplate.insert(event(reason, sourceId, userId, points));
+        } catch (DuplicateKeyException e) {
+            log.debug("Score event {}:{} already recorded", reason, sourceId);
+        }
+    }
+
+    public void recordAll(List<ScoreEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ScoreEvent.class).insert(events).execute();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+    }
+
+    public static ScoreEvent event(String reason, String sourceId, String userId, int points) {
+        return ScoreEvent.builder()
+                .id(reason + ":" + sourceId)
+                .user(userId)
+                .points(points)
+                .reason(reason)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    // Applies everything that is pending; each round claims at most one batch
+    public void flush() {
+        for (String batch : staleBatches()) {
+            log.warn("Re-applying score batch {} abandoned by a previous aggregator", batch);
+            apply(batch);
+        }
+        while (true) {
+            String batch = claim();
+            if (batch == null) {
+                return;
+            }
+            apply(batch);
+        }
+    }
+
+    // Recomputes every codingScore from the ledger and rebuilds the lifetime leaderboards from the result
+    public void rebuildScores() {
+        flush();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("applied").is(true).and("user").ne(null)),
+                Aggregation.group("user").sum("points").as("points"));
+        Map<String, Integer> totals = new HashMap<>();
+        for (Document total : mongoTemplate.aggregate(aggregation, ScoreEvent.class, Document.class)) {
+            totals.put(total.getString("_id"), ((Number) total.get("points")).intValue());
+        }
+
+        mongoTemplate.updateMulti(new Query(), new Update().set("codingScore", 0), User.class);
+        BulkOperations users = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        totals.forEach((userId, points) -> users.updateOne(
+                new Query(Criteria.where("_id").is(userId)), new Update().set("codingScore", points)));
+        if (!totals.isEmpty()) {
+            users.execute();
+        }
+        leaderboardIndexer.rebuild();
+        log.info("Rebuilt coding scores of {} users from the score ledger", totals.size());
+    }
+
+    private String claim() {
+        Query pending = new Query(Criteria.where("applied").is(false).and("batch").is(null))
+                .with(Sort.by("createdAt"))
+                .limit(batchSize);
+        pending.fields().include("_id");
+        List<String> ids = mongoTemplate.find(pending, ScoreEvent.class).stream().map(ScoreEvent::getId).toList();
+        if (ids.isEmpty()) {
+            return null;
+        }
+
+        // The batch: null condition keeps two aggregators from claiming the same event
+        String batch = UUID.randomUUID().toString();
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(ids).and("batch").is(null)),
+                new Update().set("batch", batch).set("claimedAt", Instant.now()),
+                ScoreEvent.class);
+        return batch;
+    }
+
+    private List<String> staleBatches() {
+        Query stale = new Query(Criteria.where("applied").is(false).and("batch").ne(null)
+                .and("claimedAt").lt(Instant.now().minusMillis(staleClaimMs)));
+        return mongoTemplate.findDistinct(stale, "batch", ScoreEvent.class, String.class);
+    }
+
+    private void apply(String batch) {
+        Query claimed = new Query(Criteria.where("batch").is(batch).and("applied").is(false));
+        claimed.fields().include("user", "points");
+        Map<String, Integer> userPoints = new HashMap<>();
+        for (ScoreEvent event : mongoTemplate.find(claimed, ScoreEvent.class)) {
+            userPoints.merge(event.getUser(), event.getPoints(), Integer::sum);
+        }
+        if (userPoints.isEmpty()) {
+            return;
+        }
+
+        // A batch re-applied after a crash may already be counted for some of its users; they are left out
+        // of both the $inc and the published changes
+        List<String> batchUsers = List.copyOf(userPoints.keySet());
+        Query counted = new Query(Criteria.where("_id").in(batchUsers).and("scoreBatches").is(batch));
+        counted.fields().include("_id");
+        mongoTemplate.find(counted, User.class).forEach(user -> userPoints.remove(user.getId()));
+
+        if (!userPoints.isEmpty()) {
+            BulkOperations users = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+            userPoints.forEach((userId, points) -> {
+                Update update = new Update().inc("codingScore", points).addToSet("scoreBatches", batch);
+                users.updateOne(new Query(Criteria.where("_id").is(userId).and("scoreBatches").ne(batch)), update);
+            });
+            users.execute();
+        }
+
+        mongoTemplate.updateMulti(new Query(Criteria.where("batch").is(batch)),
+                new Update().set("applied", true), ScoreEvent.class);
+        // Applied events are never re-applied, so the batch no longer needs remembering
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(batchUsers)),
+                new Update().pull("scoreBatches", batch), User.class);
+        if (!userPoints.isEmpty()) {
+            publishScoreChanges(userPoints);
+        }
+    }
+
+    // One read after the bulk write gives listeners the new scores and where each user is ranked
+    private void publishScoreChanges(Map<String, Integer> userPoints) {
+        Query query = new Query(Criteria.where("_id").in(userPoints.keySet()));
+        query.fields().include("codingScore", "college", "department");
+        for (User user : mongoTemplate.find(query, User.class)) {
+            eventPublisher.publishEvent(new ScoreChangedEvent(user.getId(), userPoints.get(user.getId()),
+                    user.getCodingScore(), user.getCollege(), user.getDepartment()));
+        }
+    }
+
+    // Scores earned before the ledger existed enter it once, as an already-applied opening balance per user
+    private void recordBaseline() {
+        if (mongoTemplate.exists(new Query(Criteria.where("_id").is(BASELINE_MARKER)), ScoreEvent.class)) {
+            return;
+        }
+        Query query = new Query(Criteria.where("codingScore").ne(0));
+        query.fields().include("codingScore");
+
+        int users = 0;
+        List<ScoreEvent> balances = new ArrayList<>();
+        try (Stream<User> stream = mongoTemplate.stream(query, User.class)) {
+            for (User user : (Iterable<User>) stream::iterator) {
+                if (user.getCodingScore() == null) {
+                    continue;
+                }
+                ScoreEvent balance = event(BASELINE_MARKER, user.getId(), user.getId(), user.getCodingScore());
+                balance.setApplied(true);
+                balances.add(balance);
+                users++;
+                if (balances.size() == batchSize) {
+                    recordAll(balances);
+                    balances.clear();
+                }
+            }
+        }
+        recordAll(balances);
+        recordAll(List.of(ScoreEvent.builder().id(BASELINE_MARKER).points(0).reason(BASELINE_MARKER)
+                .createdAt(Instant.now()).applied(true).build()));
+        log.info("Recorded opening score balances for {} users in the score ledger", users);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Could not apply score events", e);
+        }
+    }
+}
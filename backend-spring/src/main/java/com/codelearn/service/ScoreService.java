@@ -0,0 +1,123 @@
+package com.codelearn.service;
+
+import com.codelearn.model.Contest;
+import com.codelearn.model.Group;
+import com.codelearn.model.ScoreEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Score changes are applied server-side with $inc so concurrent awards never overwrite each other. User
+// points go through the score ledger; see ScoreLedgerService.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScoreService {
+
+    public static final String POST = "post";
+    public static final String POST_LIKE = "post-like";
+    public static final String COMMENT = "comment";
+    public static final String REPLY = "reply";
+    public static final String COMMENT_LIKE = "comment-like";
+    public static final String CONTEST = "contest";
+
+    private final MongoTemplate mongoTemplate;
+    private final ScoreLedgerService scoreLedgerService;
+
+    public static int pointsFor(Contest.Problem problem) {
+        return problem.getPoints() != null ? problem.getPoints() : 100;
+    }
+
+    // The points reach codingScore when the ledger aggregator next runs; the request only records them
+    public void award(String reason, String sourceId, String userId, int points) {
+        scoreLedgerService.record(reason, sourceId, userId, points);
+    }
+
+    public void incrementGroupScore(String groupId, int points) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(groupId)),
+                new Update().inc("groupScore", points),
+                Group.class);
+    }
+
+    // Only the first accepted submission for a problem scores: once for the user and once for the group,
+    // however many times either solves it again. Safe to repeat for the same submission.
+    public void awardContestSubmission(String contestId, String userId, String groupId, int problem, int points) {
+        award(CONTEST, solveId(contestId, problem, userId), userId, points);
+        if (claimGroupSolve(contestId, groupId, problem, points)) {
+            incrementGroupScore(groupId, points);
+        }
+        log.debug("Awarded {} points to user {} and group {} in contest {}", points, userId, groupId, contestId);
+    }
+
+    // Records the users' points in the ledger and applies the group totals with one unordered bulk write,
+    // with the same first-solve rules as awardContestSubmission
+    public void applyContestAwards(List<ContestAward> awards) {
+        if (awards.isEmpty()) {
+            return;
+        }
+
+        List<ScoreEvent> events = new ArrayList<>(awards.size());
+        Map<List<Object>, ContestAward> groupSolves = new LinkedHashMap<>();
+        for (ContestAward award : awards) {
+            events.add(ScoreLedgerService.event(CONTEST,
+                    solveId(award.getContestId(), award.getProblem(), award.getUserId()), award.getUserId(), award.getPoints()));
+            groupSolves.putIfAbsent(List.of(award.getContestId(), award.getGroupId(), award.getProblem()), award);
+        }
+        scoreLedgerService.recordAll(events);
+
+        Map<String, Integer> groupPoints = new HashMap<>();
+        for (ContestAward award : groupSolves.values()) {
+            if (claimGroupSolve(award.getContestId(), award.getGroupId(), award.getProblem(), award.getPoints())) {
+                groupPoints.merge(award.getGroupId(), award.getPoints(), Integer::sum);
+            }
+        }
+        if (groupPoints.isEmpty()) {
+            return;
+        }
+        BulkOperations groups = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Group.class);
+        groupPoints.forEach((groupId, points) -> groups.updateOne(
+                new Query(Criteria.where("_id").is(groupId)), new Update().inc("groupScore", points)));
+        groups.execute();
+    }
+
+    // Ledger id of a user's points for a problem, so solving it again records nothing new
+    private static String solveId(String contestId, int problem, String userId) {
+        return contestId + ":" + problem + ":" + userId;
+    }
+
+    // Adds the points to the group's contest score unless the problem is already in its solved list;
+    // false when it was
+    private boolean claimGroupSolve(String contestId, String groupId, int problem, int points) {
+        Query query = new Query(Criteria.where("_id").is(contestId).and("participatingGroups")
+                .elemMatch(Criteria.where("group").is(groupId).and("solved").ne(problem)));
+        Update update = new Update()
+                .inc("participatingGroups.$[g].score", points)
+                .addToSet("participatingGroups.$[g].solved", problem)
+                .filterArray(Criteria.where("g.group").is(groupId));
+        return mongoTemplate.updateFirst(query, update, Contest.class).getModifiedCount() > 0;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ContestAward {
+        private final String contestId;
+        private final String userId;
+        private final String groupId;
+        private final int problem;
+        private final int points;
+    }
+}
@@ -0,0 +1,314 @@
+package com.codelearn.service;
+
+import com.codelearn.dto.response.ScoreboardResponse;
+import com.codelearn.event.ContestLifecycleEvent;
+import com.codelearn.exception.ResourceNotFoundException;
+import com.codelearn.model.Contest;
+import com.codelearn.model.Submission;
+import com.codelearn.repository.ContestRepository;
+import com.codelearn.repository.GroupRepository;
+import com.codelearn.util.IndexedSkipList;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+// In-memory contest standings, loaded once per running contest and then updated per accepted submission.
+// Updates and snapshots are queued for sending while the board is locked, so every subscriber sees them in
+// the order they were applied.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScoreboardService {
+
+    private final ContestRepository contestRepository;
+    private final GroupRepository groupRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${scoreboard.sse-timeout-ms}")
+    private long sseTimeoutMs;
+
+    @Value("${scoreboard.finished-cache-size}")
+    private int finishedCacheSize;
+
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+    // Final standings never change, so the most recently read ones are kept as they are
+    private final Map<String, Board> finished = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Board> eldest) {
+            return size() > finishedCacheSize;
+        }
+    });
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService broadcaster = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scoreboard-broadcast");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    void stop() {
+        broadcaster.shutdownNow();
+    }
+
+    public ScoreboardResponse getScoreboard(String contestId) {
+        Board board = board(contestId);
+        synchronized (board) {
+            return snapshot(contestId, board);
+        }
+    }
+
+    public SseEmitter subscribe(String contestId) {
+        Board board = board(contestId);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        synchronized (board) {
+            if (!board.live) {
+                // Nothing will change any more
+                ScoreboardResponse snapshot = snapshot(contestId, board);
+                broadcaster.execute(() -> {
+                    send(emitter, "snapshot", snapshot);
+                    emitter.complete();
+                });
+                return emitter;
+            }
+
+            // Registered before the snapshot is taken, so no update can fall between the two
+            List<SseEmitter> emitters = subscribers.computeIfAbsent(contestId, id -> new CopyOnWriteArrayList<>());
+            emitters.add(emitter);
+            emitter.onCompletion(() -> emitters.remove(emitter));
+            emitter.onTimeout(emitter::complete);
+            emitter.onError(e -> emitters.remove(emitter));
+            ScoreboardResponse snapshot = snapshot(contestId, board);
+            broadcaster.execute(() -> {
+                if (!send(emitter, "snapshot", snapshot)) {
+                    emitters.remove(emitter);
+                }
+            });
+        }
+        return emitter;
+    }
+
+    // Only a group's first accepted submission for a problem adds score, penalty and a solved problem
+    public void recordAccepted(String contestId, String groupId, int problem, int points, LocalDateTime submittedAt) {
+        boards.computeIfPresent(contestId, (id, board) -> {
+            synchronized (board) {
+                List<ScoreboardResponse.Standing> changed = board.apply(groupId, problem, points, submittedAt);
+                if (!changed.isEmpty()) {
+                    broadcast(contestId, changed);
+                }
+            }
+            return board;
+        });
+    }
+
+    @EventListener
+    public void onContestLifecycle(ContestLifecycleEvent event) {
+        // Final standings are reloaded on demand; live subscribers are released once the contest is over
+        if ("completed".equals(event.getStatus())) {
+            evict(event.getContestId());
+        }
+    }
+
+    public void evict(String contestId) {
+        boards.remove(contestId);
+        finished.remove(contestId);
+        List<SseEmitter> emitters = subscribers.remove(contestId);
+        if (emitters != null) {
+            emitters.forEach(SseEmitter::complete);
+        }
+    }
+
+    // Loaded inside computeIfAbsent, so an accept recorded while the board loads waits for it and is then
+    // applied; one the load already saw is ignored as a repeated solve. Finished boards move to their own cache.
+    private Board board(String contestId) {
+        Board board = boards.get(contestId);
+        if (board == null) {
+            board = finished.get(contestId);
+        }
+        if (board != null) {
+            return board;
+        }
+        Board loaded = boards.computeIfAbsent(contestId, this::loadBoard);
+        if (!loaded.live && boards.remove(contestId, loaded)) {
+            finished.put(contestId, loaded);
+        }
+        return loaded;
+    }
+
+    private ScoreboardResponse snapshot(String contestId, Board board) {
+        return ScoreboardResponse.builder()
+                .contestId(contestId)
+                .standings(board.standings(0, board.size()))
+                .build();
+    }
+
+    // Called with the board locked; the subscribers at that moment get the update
+    private void broadcast(String contestId, List<ScoreboardResponse.Standing> changed) {
+        List<SseEmitter> emitters = subscribers.get(contestId);
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        List<SseEmitter> targets = List.copyOf(emitters);
+
+        // Serialize once and push the same payload to every spectator off the request thread
+        broadcaster.execute(() -> {
+            String payload;
+            try {
+                payload = objectMapper.writeValueAsString(changed);
+            } catch (JsonProcessingException e) {
+                log.error("Could not serialize scoreboard update for contest {}", contestId, e);
+                return;
+            }
+            for (SseEmitter emitter : targets) {
+                if (!send(emitter, "standings", payload)) {
+                    emitters.remove(emitter);
+                }
+            }
+        });
+    }
+
+    private boolean send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private Board loadBoard(String contestId) {
+        Contest contest = contestRepository.findById(contestId)
+                .orElseThrow(() -> new ResourceNotFoundException("Contest", "id", contestId));
+
+        List<String> groupIds = contest.getParticipatingGroups().stream()
+                .map(Contest.ParticipatingGroup::getGroup)
+                .collect(Collectors.toList());
+        Map<String, String> names = new HashMap<>();
+        groupRepository.findAllById(groupIds).forEach(group -> names.put(group.getId(), group.getName()));
+
+        Board board = new Board(contest.getStartTime(), !"completed".equals(contest.getStatus()));
+        groupIds.forEach(groupId -> board.addRow(groupId, names.get(groupId)));
+
+        Query accepted = new Query(Criteria.where("contest").is(contestId).and("score").gt(0))
+                .with(Sort.by("submittedAt"));
+        accepted.fields().include("group", "problem", "score", "submittedAt");
+        for (Submission submission : mongoTemplate.find(accepted, Submission.class)) {
+            board.apply(submission.getGroup(), submission.getProblem(), submission.getScore(), submission.getSubmittedAt());
+        }
+
+        log.debug("Loaded scoreboard for contest {} with {} groups", contestId, board.size());
+        return board;
+    }
+
+    private static final class Row {
+        private final String group;
+        private final String name;
+        private final int score;
+        private final long penalty;
+        private final int accepted;
+
+        private Row(String group, String name, int score, long penalty, int accepted) {
+            this.group = group;
+            this.name = name;
+            this.score = score;
+            this.penalty = penalty;
+            this.accepted = accepted;
+        }
+    }
+
+    private static final class Board {
+        private static final Comparator<Row> ORDER = Comparator
+                .comparingInt((Row row) -> -row.score)
+                .thenComparingLong(row -> row.penalty)
+                .thenComparing(row -> row.group);
+
+        private final LocalDateTime startTime;
+        private final boolean live;
+        private final IndexedSkipList<Row> ranking = new IndexedSkipList<>(ORDER);
+        private final Map<String, Row> rows = new HashMap<>();
+        private final Set<String> solved = new HashSet<>();
+
+        private Board(LocalDateTime startTime, boolean live) {
+            this.startTime = startTime;
+            this.live = live;
+        }
+
+        private int size() {
+            return ranking.size();
+        }
+
+        private void addRow(String group, String name) {
+            Row row = new Row(group, name, 0, 0, 0);
+            rows.put(group, row);
+            ranking.add(row);
+        }
+
+        // Returns the standings whose rank changed: the updated row and every row it overtook
+        private List<ScoreboardResponse.Standing> apply(String group, int problem, int points,
+                                                        LocalDateTime submittedAt) {
+            Row current = rows.get(group);
+            if (current == null || !solved.add(group + ":" + problem)) {
+                return List.of();
+            }
+
+            long penalty = Math.max(Duration.between(startTime, submittedAt).toMinutes(), 0);
+            Row updated = new Row(group, current.name, current.score + points,
+                    current.penalty + penalty, current.accepted + 1);
+
+            int oldRank = ranking.rank(current);
+            ranking.remove(current);
+            ranking.add(updated);
+            rows.put(group, updated);
+            int newRank = ranking.rank(updated);
+
+            return standings(Math.min(oldRank, newRank), Math.max(oldRank, newRank) + 1);
+        }
+
+        private List<ScoreboardResponse.Standing> standings(int from, int to) {
+            List<Row> slice = ranking.range(from, to);
+            List<ScoreboardResponse.Standing> result = new ArrayList<>(slice.size());
+            for (int i = 0; i < slice.size(); i++) {
+                Row row = slice.get(i);
+                result.add(ScoreboardResponse.Standing.builder()
+                        .rank(from + i + 1)
+                        .group(row.group)
+                        .name(row.name)
+                        .score(row.score)
+                        .penalty(row.penalty)
+                        .accepted(row.accepted)
+                        .build());
+            }
+            return result;
+        }
+    }
+}
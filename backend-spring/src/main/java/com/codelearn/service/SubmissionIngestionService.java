@@ -0,0 +1,380 @@
+package com.codelearn.service;
+
+import com.codelearn.dto.response.SubmissionResponse;
+import com.codelearn.exception.ServiceUnavailableException;
+import com.codelearn.judge.JudgeResult;
+import com.codelearn.judge.JudgeService;
+import com.codelearn.judge.Verdict;
+import com.codelearn.model.Contest;
+import com.codelearn.model.Submission;
+import com.codelearn.repository.ContestRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Buffers contest submissions in memory so the submit endpoint only validates and enqueues.
+// A writer bulk-inserts them and hands them to the judge; a flusher bulk-writes the verdicts and score increments.
+// Writes are retried until they succeed. A submission whose verdict is not stored stays PENDING and is judged
+// again on the next start.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SubmissionIngestionService {
+
+    private static final long RETRY_DELAY_MS = 100;
+    private static final long STOP_TIMEOUT_MS = 5000;
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ContestRepository contestRepository;
+    private final JudgeService judgeService;
+    private final ScoreService scoreService;
+    private final ScoreboardService scoreboardService;
+
+    @Value("${submission.ingestion.enabled}")
+    private boolean enabled;
+
+    @Value("${submission.ingestion.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${submission.ingestion.batch-size}")
+    private int batchSize;
+
+    @Value("${submission.ingestion.flush-interval-ms}")
+    private long flushIntervalMs;
+
+    @Value("${scoreboard.sse-timeout-ms}")
+    private long sseTimeoutMs;
+
+    private BlockingQueue<Pending> queue;
+    private final BlockingQueue<Judged> judged = new LinkedBlockingQueue<>();
+    private final Map<String, Submission> queued = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService writer = singleThread("submission-writer");
+    private final ExecutorService flusher = singleThread("verdict-flusher");
+    private final ExecutorService resumer = singleThread("submission-resume");
+    private volatile boolean running = true;
+
+    private static ExecutorService singleThread(String name) {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (enabled) {
+            writer.execute(this::writeLoop);
+            flusher.execute(this::flushLoop);
+        }
+    }
+
+    // Lets the loops finish the batch in hand, then persists whatever is still buffered
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (ExecutorService executor : List.of(resumer, writer, flusher)) {
+            executor.shutdown();
+        }
+        for (ExecutorService executor : List.of(resumer, writer, flusher)) {
+            if (!executor.awaitTermination(STOP_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+                executor.awaitTermination(STOP_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            insertIgnoringDuplicates(remaining.stream().map(p -> p.submission).collect(Collectors.toList()));
+        }
+        List<Judged> results = new ArrayList<>();
+        judged.drainTo(results);
+        if (!results.isEmpty()) {
+            try {
+                writeVerdicts(results);
+            } catch (RuntimeException e) {
+                log.error("Could not write {} verdicts; they are judged again on the next start", results.size(), e);
+            }
+        }
+    }
+
+    // Judging resumes on its own thread, which waits whenever the judge queue is full
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        if (enabled) {
+            resumer.execute(this::requeuePending);
+        }
+    }
+
+    private void requeuePending() {
+        List<Submission> pending = mongoTemplate.find(
+                new Query(Criteria.where("verdict").is(Verdict.PENDING.name())), Submission.class);
+        Map<String, List<Submission>> byContest = pending.stream()
+                .collect(Collectors.groupingBy(Submission::getContest));
+
+        byContest.forEach((contestId, submissions) -> contestRepository.findById(contestId).ifPresent(contest ->
+                submissions.forEach(submission ->
+                        dispatch(new Pending(submission, contest.getProblems().get(submission.getProblem()))))));
+        if (!pending.isEmpty()) {
+            log.info("Re-queued {} submissions that were not judged before shutdown", pending.size());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void enqueue(Submission submission, Contest.Problem problem) {
+        queued.put(submission.getId(), submission);
+        if (!queue.offer(new Pending(submission, problem))) {
+            queued.remove(submission.getId());
+            throw new ServiceUnavailableException("Too many submissions right now, please retry shortly");
+        }
+    }
+
+    // Submissions accepted by the endpoint but not yet written by the batch writer
+    public Optional<Submission> findQueued(String submissionId) {
+        return Optional.ofNullable(queued.get(submissionId));
+    }
+
+    public SseEmitter subscribe(Submission submission) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        if (!Verdict.PENDING.name().equals(submission.getVerdict())) {
+            sendVerdict(emitter, toResponse(submission));
+            return emitter;
+        }
+
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(submission.getId(), id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+
+        // The verdict may have been written between the caller's read and the registration above
+        Submission latest = mongoTemplate.findById(submission.getId(), Submission.class);
+        if (latest != null && !Verdict.PENDING.name().equals(latest.getVerdict())) {
+            subscribers.remove(submission.getId());
+            sendVerdict(emitter, toResponse(latest));
+        }
+        return emitter;
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Pending first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                insertWithRetry(batch.stream().map(p -> p.submission).collect(Collectors.toList()));
+                batch.forEach(p -> queued.remove(p.submission.getId()));
+                batch.forEach(this::dispatch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void insertWithRetry(List<Submission> submissions) throws InterruptedException {
+        while (true) {
+            try {
+                insertIgnoringDuplicates(submissions);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Could not write {} submissions, retrying", submissions.size(), e);
+                Thread.sleep(RETRY_DELAY_MS * 10);
+            }
+        }
+    }
+
+    // A retry after a partly applied insert only finds the earlier copies
+    private void insertIgnoringDuplicates(List<Submission> submissions) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Submission.class).insert(submissions).execute();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+    }
+
+    private void dispatch(Pending pending) {
+        Submission submission = pending.submission;
+        while (true) {
+            try {
+                judgeService.judge(pending.problem, submission.getLanguage(), submission.getCode())
+                        .whenComplete((result, error) -> judged.add(new Judged(pending, error == null
+                                ? result
+                                : JudgeResult.builder().verdict(Verdict.INTERNAL_ERROR).passedTests(0).totalTests(0).build())));
+                return;
+            } catch (ServiceUnavailableException e) {
+                // The judge queue is full: wait here so the ingestion queue fills up and the endpoint pushes back.
+                // At shutdown the submission is left PENDING instead.
+                if (!running) {
+                    return;
+                }
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } catch (RuntimeException e) {
+                log.error("Could not judge submission {}", submission.getId(), e);
+                judged.add(new Judged(pending,
+                        JudgeResult.builder().verdict(Verdict.INTERNAL_ERROR).passedTests(0).totalTests(0).build()));
+                return;
+            }
+        }
+    }
+
+    private void flushLoop() {
+        List<Judged> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                Judged first = judged.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                judged.drainTo(batch, batchSize - 1);
+                writeVerdictsWithRetry(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // An unwritten batch goes back for stop() to write
+            judged.addAll(batch);
+        }
+    }
+
+    private void writeVerdictsWithRetry(List<Judged> batch) throws InterruptedException {
+        while (true) {
+            try {
+                writeVerdicts(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Could not write {} verdicts, retrying", batch.size(), e);
+                Thread.sleep(RETRY_DELAY_MS * 10);
+            }
+        }
+    }
+
+    // Safe to repeat for the same batch: awards are idempotent and stored before the verdicts, so a
+    // submission is never marked judged without its points
+    private void writeVerdicts(List<Judged> batch) {
+        BulkOperations verdicts = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Submission.class);
+        List<ScoreService.ContestAward> awards = new ArrayList<>();
+        for (Judged j : batch) {
+            Submission submission = j.pending.submission;
+            int score = j.result.isAccepted() ? ScoreService.pointsFor(j.pending.problem) : 0;
+            submission.setScore(score);
+            submission.setVerdict(j.result.getVerdict().name());
+            submission.setPassedTests(j.result.getPassedTests());
+            submission.setTotalTests(j.result.getTotalTests());
+
+            verdicts.updateOne(new Query(Criteria.where("_id").is(submission.getId())), new Update()
+                    .set("score", score)
+                    .set("verdict", submission.getVerdict())
+                    .set("passedTests", submission.getPassedTests())
+                    .set("totalTests", submission.getTotalTests()));
+            if (score > 0) {
+                awards.add(new ScoreService.ContestAward(submission.getContest(), submission.getUser(),
+                        submission.getGroup(), submission.getProblem(), score));
+            }
+        }
+        scoreService.applyContestAwards(awards);
+        verdicts.execute();
+
+        for (Judged j : batch) {
+            Submission submission = j.pending.submission;
+            if (submission.getScore() > 0) {
+                scoreboardService.recordAccepted(submission.getContest(), submission.getGroup(),
+                        submission.getProblem(), submission.getScore(), submission.getSubmittedAt());
+            }
+            List<SseEmitter> emitters = subscribers.remove(submission.getId());
+            if (emitters != null) {
+                SubmissionResponse response = SubmissionResponse.judged(submission.getId(), submission.getScore(), j.result);
+                emitters.forEach(emitter -> sendVerdict(emitter, response));
+            }
+        }
+    }
+
+    private void sendVerdict(SseEmitter emitter, SubmissionResponse response) {
+        try {
+            emitter.send(SseEmitter.event().name("verdict").data(response, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private SubmissionResponse toResponse(Submission submission) {
+        return SubmissionResponse.builder()
+                .id(submission.getId())
+                .score(submission.getScore())
+                .verdict(submission.getVerdict() != null ? Verdict.valueOf(submission.getVerdict()) : null)
+                .passedTests(submission.getPassedTests())
+                .totalTests(submission.getTotalTests())
+                .build();
+    }
+
+    @AllArgsConstructor
+    private static class Pending {
+        private final Submission submission;
+        private final Contest.Problem problem;
+    }
+
+    @AllArgsConstructor
+    private static class Judged {
+        private final Pending pending;
+        private final JudgeResult result;
+    }
+}
@@ -0,0 +1,176 @@
+package com.codelearn.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorted list with O(log n) insert, remove, rank and positional access.
+ * Each forward link records how many elements it skips (as in Redis sorted sets),
+ * which is what makes rank lookups logarithmic. The comparator must be a total order;
+ * elements comparing equal are treated as the same element. Not thread-safe.
+ */
+public class IndexedSkipList<E> {
+
+    private static final int MAX_LEVEL = 32;
+    private static final int BRANCHING = 4;
+
+    private final Comparator<? super E> comparator;
+    private final Node<E> head = new Node<>(null, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+
+    public IndexedSkipList(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void add(E value) {
+        Node<E>[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+
+        Node<E> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+
+        Node<E> node = new Node<>(value, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean remove(E value) {
+        Node<E>[] update = new Node[MAX_LEVEL];
+
+        Node<E> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        Node<E> target = x.next[0];
+        if (target == null || comparator.compare(target.value, value) != 0) {
+            return false;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    // Zero-based position of the element, or -1 if it is not present
+    public int rank(E value) {
+        int rank = 0;
+        Node<E> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && comparator.compare(x.value, value) == 0) {
+                return rank - 1;
+            }
+        }
+        return -1;
+    }
+
+    public E get(int index) {
+        Node<E> node = nodeAt(index);
+        return node != null ? node.value : null;
+    }
+
+    // Elements in positions [from, to), clamped to the list bounds
+    public List<E> range(int from, int to) {
+        int start = Math.max(from, 0);
+        int end = Math.min(to, size);
+        List<E> result = new ArrayList<>(Math.max(end - start, 0));
+        Node<E> x = start < end ? nodeAt(start) : null;
+        while (x != null && result.size() < end - start) {
+            result.add(x.value);
+            x = x.next[0];
+        }
+        return result;
+    }
+
+    private Node<E> nodeAt(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        int target = index + 1;
+        int traversed = 0;
+        Node<E> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= target) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == target) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    private int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextInt(BRANCHING) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Node<E> {
+        private final E value;
+        private final Node<E>[] next;
+        private final int[] span;
+
+        @SuppressWarnings("unchecked")
+        private Node(E value, int level) {
+            this.value = value;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
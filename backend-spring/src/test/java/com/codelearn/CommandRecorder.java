@@ -0,0 +1,60 @@
+package com.codelearn;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Captures the commands sent by one thread, so background services do not disturb what a test sees
+public class CommandRecorder implements CommandListener {
+
+    private final List<BsonDocument> commands = new CopyOnWriteArrayList<>();
+    private volatile Thread recording;
+
+    public List<BsonDocument> record(Runnable action) {
+        commands.clear();
+        recording = Thread.currentThread();
+        try {
+            action.run();
+        } finally {
+            recording = null;
+        }
+        return new ArrayList<>(commands);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (Thread.currentThread() == recording) {
+            // The event's document is only readable while the listener runs
+            commands.add(event.getCommand().clone());
+        }
+    }
+
+    // Read queries (find and aggregate) on one collection
+    public static List<BsonDocument> queriesOn(List<BsonDocument> commands, String collection) {
+        return commands.stream()
+                .filter(command -> List.of("find", "aggregate").contains(command.getFirstKey()))
+                .filter(command -> collection.equals(command.getString(command.getFirstKey()).getValue()))
+                .toList();
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        public CommandRecorder commandRecorder() {
+            return new CommandRecorder();
+        }
+
+        @Bean
+        public MongoClientSettingsBuilderCustomizer commandRecorderCustomizer(CommandRecorder recorder) {
+            return settings -> settings.addCommandListener(recorder);
+        }
+    }
+}
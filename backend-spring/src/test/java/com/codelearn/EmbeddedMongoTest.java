@@ -0,0 +1,26 @@
+package com.codelearn;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+// Boots the application against an in-memory Mongo server shared by every test class
+@SpringBootTest(properties = {
+        "spring.devtools.restart.enabled=false",
+        "submission.ingestion.enabled=false",
+        "judge.isolation=none"
+})
+@Import(CommandRecorder.Config.class)
+public abstract class EmbeddedMongoTest {
+
+    private static final MongoServer MONGO = new MongoServer(new MemoryBackend());
+    private static final String URI = MONGO.bindAndGetConnectionString() + "/codelearn-test";
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> URI);
+    }
+}
@@ -0,0 +1,219 @@
+package com.codelearn;
+
+import com.codelearn.dto.response.CursorPage;
+import com.codelearn.dto.response.PostSummaryResponse;
+import com.codelearn.model.Contest;
+import com.codelearn.model.Group;
+import com.codelearn.model.Post;
+import com.codelearn.model.Submission;
+import com.codelearn.model.User;
+import com.codelearn.service.ContestService;
+import com.codelearn.service.LeaderboardService;
+import com.codelearn.service.PostService;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Explains the queries that the feed, submission and leaderboard endpoints actually send, on a real MongoDB,
+// and fails if any of them is answered by a collection scan. Skipped where Docker is not available.
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.devtools.restart.enabled=false",
+        "submission.ingestion.enabled=false",
+        "judge.isolation=none"
+})
+@Import(CommandRecorder.Config.class)
+class QueryPlanTest {
+
+    private static final Set<String> INDEX_STAGES = Set.of("IXSCAN", "COUNT_SCAN", "IDHACK", "EXPRESS_IXSCAN");
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> MONGO.getReplicaSetUrl("codelearn-plans"));
+    }
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private ContestService contestService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CommandRecorder commandRecorder;
+
+    private static String contestId;
+    private static String userId;
+
+    // Enough documents that a collection scan is never the only sensible plan
+    @BeforeAll
+    static void seed(@Autowired MongoTemplate mongoTemplate) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            users.add(mongoTemplate.insert(User.builder()
+                    .name("user" + i)
+                    .email("plan-" + i + "@example.com")
+                    .password("secret")
+                    .college("college" + i % 3)
+                    .department("dept" + i % 4)
+                    .codingScore(i * 10)
+                    .build()));
+        }
+        userId = users.get(0).getId();
+
+        List<Group> groups = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            groups.add(mongoTemplate.insert(Group.builder()
+                    .name("group" + i)
+                    .inviteCode("PLAN" + i)
+                    .creator(users.get(i).getId())
+                    .groupScore(i * 5)
+                    .members(new ArrayList<>(List.of(Group.GroupMember.builder()
+                            .user(users.get(i).getId())
+                            .role("admin")
+                            .build())))
+                    .build()));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            mongoTemplate.insert(Post.builder()
+                    .author(users.get(i % users.size()).getId())
+                    .title("post" + i)
+                    .problem("problem " + i)
+                    .language(i % 2 == 0 ? "java" : "python")
+                    .difficulty(i % 3 == 0 ? "Easy" : "Hard")
+                    .views(i)
+                    .likeCount(i % 7)
+                    .createdAt(LocalDateTime.now().minusMinutes(i))
+                    .build());
+        }
+
+        Contest contest = mongoTemplate.insert(Contest.builder()
+                .title("Plans")
+                .creator(userId)
+                .participatingGroups(new ArrayList<>(groups.stream()
+                        .map(group -> Contest.ParticipatingGroup.builder().group(group.getId()).build())
+                        .toList()))
+                .startTime(LocalDateTime.now())
+                .build());
+        contestId = contest.getId();
+        for (int i = 0; i < 200; i++) {
+            mongoTemplate.insert(Submission.builder()
+                    .contest(i % 4 == 0 ? contestId : "other" + i % 5)
+                    .user(users.get(i % users.size()).getId())
+                    .group(groups.get(i % groups.size()).getId())
+                    .problem(i % 3)
+                    .code("print(1)")
+                    .language("python")
+                    .verdict("WRONG_ANSWER")
+                    .score(0)
+                    .submittedAt(LocalDateTime.now().minusMinutes(i))
+                    .build());
+        }
+    }
+
+    @Test
+    void feedPagesUseIndexes() {
+        List<BsonDocument> commands = commandRecorder.record(() -> {
+            CursorPage<PostSummaryResponse> latest = postService.getAllPosts(null, null, null, null, null, 20);
+            postService.getAllPosts(null, null, null, null, latest.getNextCursor(), 20);
+            CursorPage<PostSummaryResponse> mostViewed = postService.getAllPosts(null, null, null, "views", null, 20);
+            postService.getAllPosts(null, null, null, "views", mostViewed.getNextCursor(), 20);
+            postService.getAllPosts("java", null, null, null, null, 20);
+            postService.getAllPosts(null, "Easy", null, null, null, 20);
+            postService.getAllPosts("python", "Hard", null, null, null, 20);
+        });
+
+        assertIndexed(commands, "posts", 7);
+    }
+
+    @Test
+    void submissionListsUseIndexes() {
+        List<BsonDocument> commands = commandRecorder.record(() -> {
+            contestService.getSubmissions(contestId, null, null, 0, 20);
+            contestService.getSubmissions(contestId, userId, null, 0, 20);
+            contestService.getSubmissions(contestId, null, 1, 0, 20);
+            contestService.getSubmissions(contestId, userId, 1, 0, 20);
+        });
+
+        assertIndexed(commands, "submissions", 4);
+    }
+
+    @Test
+    void groupLeaderboardUsesIndexes() {
+        List<BsonDocument> commands = commandRecorder.record(leaderboardService::getGroupLeaderboard);
+
+        assertIndexed(commands, "groups", 1);
+        assertIndexed(commands, "users", 1);
+    }
+
+    private void assertIndexed(List<BsonDocument> commands, String collection, int atLeast) {
+        List<BsonDocument> queries = CommandRecorder.queriesOn(commands, collection);
+        assertThat(queries).as("queries on %s", collection).hasSizeGreaterThanOrEqualTo(atLeast);
+
+        for (BsonDocument query : queries) {
+            Set<String> stages = winningStages(explain(query));
+            assertThat(stages).as("plan of %s", query.toJson())
+                    .doesNotContain("COLLSCAN")
+                    .containsAnyElementsOf(INDEX_STAGES);
+        }
+    }
+
+    // Re-runs the recorded command as an explain, without the driver's session and routing fields
+    private Document explain(BsonDocument query) {
+        Document command = new Document();
+        query.forEach((key, value) -> {
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                command.put(key, value);
+            }
+        });
+        return mongoTemplate.getDb().runCommand(new Document("explain", command).append("verbosity", "queryPlanner"));
+    }
+
+    // Every stage name inside a winningPlan, however deeply the server nests it
+    private static Set<String> winningStages(Document explain) {
+        Set<String> stages = new HashSet<>();
+        collect(explain.toBsonDocument(), false, stages);
+        return stages;
+    }
+
+    private static void collect(BsonValue value, boolean inWinningPlan, Set<String> stages) {
+        if (value.isDocument()) {
+            value.asDocument().forEach((key, child) -> {
+                if (inWinningPlan && key.equals("stage") && child.isString()) {
+                    stages.add(child.asString().getValue());
+                }
+                collect(child, inWinningPlan || key.equals("winningPlan"), stages);
+            });
+        } else if (value.isArray()) {
+            value.asArray().forEach(child -> collect(child, inWinningPlan, stages));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.codelearn.judge;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutputComparatorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void identicalOutputMatches() throws IOException {
+        assertThat(matches("3\n", "3\n")).isTrue();
+    }
+
+    @Test
+    void anyRunOfWhitespaceSeparatesTokens() throws IOException {
+        assertThat(matches("1 2\n3\n", "1\t2 \r\n 3")).isTrue();
+        assertThat(matches("1\f2\u000B3", "1 2 3")).isTrue();
+    }
+
+    @Test
+    void leadingAndTrailingWhitespaceIsIgnored() throws IOException {
+        assertThat(matches("\n\n  42  \n\n\n", "42")).isTrue();
+    }
+
+    @Test
+    void emptyOutputsMatchEachOther() throws IOException {
+        assertThat(matches("", "")).isTrue();
+        assertThat(matches(" \n\t", "")).isTrue();
+    }
+
+    @Test
+    void differentTokenDoesNotMatch() throws IOException {
+        assertThat(matches("1 2 4", "1 2 3")).isFalse();
+    }
+
+    @Test
+    void tokenThatIsAPrefixOfTheOtherDoesNotMatch() throws IOException {
+        assertThat(matches("12", "123")).isFalse();
+        assertThat(matches("123", "12")).isFalse();
+        assertThat(matches("12 3", "123")).isFalse();
+    }
+
+    @Test
+    void missingOrExtraTokensDoNotMatch() throws IOException {
+        assertThat(matches("1 2", "1 2 3")).isFalse();
+        assertThat(matches("1 2 3 4", "1 2 3")).isFalse();
+        assertThat(matches("", "0")).isFalse();
+    }
+
+    @Test
+    void comparisonIsCaseSensitive() throws IOException {
+        assertThat(matches("yes", "YES")).isFalse();
+    }
+
+    @Test
+    void outputsLargerThanTheBufferAreStreamed() throws IOException {
+        Path actual = dir.resolve("actual.txt");
+        Path expected = dir.resolve("expected.txt");
+        try (Writer a = Files.newBufferedWriter(actual); Writer e = Files.newBufferedWriter(expected)) {
+            for (int i = 0; i < 100_000; i++) {
+                a.write(i + "\n");
+                e.write(i + (i % 7 == 0 ? "  " : " "));
+            }
+        }
+        assertThat(OutputComparator.tokensMatch(actual, expected)).isTrue();
+
+        Files.writeString(actual, "99999\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        assertThat(OutputComparator.tokensMatch(actual, expected)).isFalse();
+    }
+
+    private boolean matches(String actual, String expected) throws IOException {
+        Path actualFile = Files.writeString(dir.resolve("actual.txt"), actual, StandardCharsets.UTF_8);
+        Path expectedFile = Files.writeString(dir.resolve("expected.txt"), expected, StandardCharsets.UTF_8);
+        return OutputComparator.tokensMatch(actualFile, expectedFile);
+    }
+}
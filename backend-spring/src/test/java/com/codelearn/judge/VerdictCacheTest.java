@@ -0,0 +1,155 @@
+package com.codelearn.judge;
+
+import com.codelearn.model.Contest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerdictCacheTest {
+
+    private static final List<Contest.TestCase> TESTS = List.of(testCase("1 2", "3"));
+
+    private final AtomicInteger judged = new AtomicInteger();
+
+    @Test
+    void identicalSubmissionsAreJudgedOnce() {
+        VerdictCache cache = new VerdictCache(10);
+
+        JudgeResult first = cache.getOrJudge(Language.PYTHON, "print(3)", TESTS, judge(Verdict.ACCEPTED)).join();
+        JudgeResult second = cache.getOrJudge(Language.PYTHON, "print(3)", TESTS, judge(Verdict.ACCEPTED)).join();
+
+        assertThat(second).isSameAs(first);
+        assertThat(judged).hasValue(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void lineEndingsAndTrailingWhitespaceDoNotChangeTheKey() {
+        VerdictCache cache = new VerdictCache(10);
+
+        cache.getOrJudge(Language.PYTHON, "a = 1\nprint(a)\n", TESTS, judge(Verdict.ACCEPTED)).join();
+        cache.getOrJudge(Language.PYTHON, "a = 1\r\nprint(a)  \r\n\n", TESTS, judge(Verdict.ACCEPTED)).join();
+
+        assertThat(judged).hasValue(1);
+    }
+
+    @Test
+    void languageCodeAndTestCasesAreAllPartOfTheKey() {
+        VerdictCache cache = new VerdictCache(10);
+
+        cache.getOrJudge(Language.PYTHON, "print(3)", TESTS, judge(Verdict.ACCEPTED)).join();
+        cache.getOrJudge(Language.JAVASCRIPT, "print(3)", TESTS, judge(Verdict.ACCEPTED)).join();
+        cache.getOrJudge(Language.PYTHON, "print(4)", TESTS, judge(Verdict.ACCEPTED)).join();
+        cache.getOrJudge(Language.PYTHON, "print(3)", List.of(testCase("1 2", "4")), judge(Verdict.ACCEPTED)).join();
+
+        assertThat(judged).hasValue(4);
+    }
+
+    @Test
+    void storedAndInlinePayloadsWithTheSameContentShareEntries() {
+        VerdictCache cache = new VerdictCache(10);
+        Contest.TestCase stored = Contest.TestCase.builder()
+                .inputRef(TestDataStore.hash("1 2"))
+                .outputRef(TestDataStore.hash("3"))
+                .build();
+
+        cache.getOrJudge(Language.PYTHON, "print(3)", TESTS, judge(Verdict.ACCEPTED)).join();
+        cache.getOrJudge(Language.PYTHON, "print(3)", List.of(stored), judge(Verdict.ACCEPTED)).join();
+
+        assertThat(judged).hasValue(1);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        VerdictCache cache = new VerdictCache(2);
+
+        cache.getOrJudge(Language.PYTHON, "a", TESTS, judge(Verdict.ACCEPTED)).join();
+        cache.getOrJudge(Language.PYTHON, "b", TESTS, judge(Verdict.ACCEPTED)).join();
+        cache.getOrJudge(Language.PYTHON, "a", TESTS, judge(Verdict.ACCEPTED)).join();
+        cache.getOrJudge(Language.PYTHON, "c", TESTS, judge(Verdict.ACCEPTED)).join();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(judged).hasValue(3);
+
+        // "b" was the eldest when "c" arrived; "a" was refreshed by its hit
+        cache.getOrJudge(Language.PYTHON, "a", TESTS, judge(Verdict.ACCEPTED)).join();
+        assertThat(judged).hasValue(3);
+        cache.getOrJudge(Language.PYTHON, "b", TESTS, judge(Verdict.ACCEPTED)).join();
+        assertThat(judged).hasValue(4);
+    }
+
+    @Test
+    void timeLimitsAndInternalErrorsAreNotCached() {
+        VerdictCache cache = new VerdictCache(10);
+
+        cache.getOrJudge(Language.PYTHON, "slow", TESTS, judge(Verdict.TIME_LIMIT_EXCEEDED)).join();
+        cache.getOrJudge(Language.PYTHON, "slow", TESTS, judge(Verdict.TIME_LIMIT_EXCEEDED)).join();
+        cache.getOrJudge(Language.PYTHON, "broken", TESTS, judge(Verdict.INTERNAL_ERROR)).join();
+        cache.getOrJudge(Language.PYTHON, "broken", TESTS, judge(Verdict.INTERNAL_ERROR)).join();
+
+        assertThat(judged).hasValue(4);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheFirstJudgement() {
+        VerdictCache cache = new VerdictCache(10);
+        CompletableFuture<JudgeResult> running = new CompletableFuture<>();
+
+        CompletableFuture<JudgeResult> first = cache.getOrJudge(Language.PYTHON, "print(3)", TESTS, () -> {
+            judged.incrementAndGet();
+            return running;
+        });
+        CompletableFuture<JudgeResult> duplicate = cache.getOrJudge(Language.PYTHON, "print(3)", TESTS,
+                judge(Verdict.ACCEPTED));
+        assertThat(duplicate).isNotDone();
+
+        running.complete(result(Verdict.WRONG_ANSWER));
+        assertThat(first.join().getVerdict()).isEqualTo(Verdict.WRONG_ANSWER);
+        assertThat(duplicate.join().getVerdict()).isEqualTo(Verdict.WRONG_ANSWER);
+        assertThat(judged).hasValue(1);
+    }
+
+    @Test
+    void failedJudgementIsNotCached() {
+        VerdictCache cache = new VerdictCache(10);
+
+        assertThatThrownBy(() -> cache.getOrJudge(Language.PYTHON, "print(3)", TESTS, () -> {
+            throw new IllegalStateException("judge unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        cache.getOrJudge(Language.PYTHON, "print(3)", TESTS, judge(Verdict.ACCEPTED)).join();
+        assertThat(judged).hasValue(1);
+    }
+
+    @Test
+    void zeroCapacityDisablesCaching() {
+        VerdictCache cache = new VerdictCache(0);
+
+        cache.getOrJudge(Language.PYTHON, "print(3)", TESTS, judge(Verdict.ACCEPTED)).join();
+        cache.getOrJudge(Language.PYTHON, "print(3)", TESTS, judge(Verdict.ACCEPTED)).join();
+
+        assertThat(judged).hasValue(2);
+    }
+
+    private Supplier<CompletableFuture<JudgeResult>> judge(Verdict verdict) {
+        return () -> {
+            judged.incrementAndGet();
+            return CompletableFuture.completedFuture(result(verdict));
+        };
+    }
+
+    private static JudgeResult result(Verdict verdict) {
+        return JudgeResult.builder().verdict(verdict).passedTests(0).totalTests(1).build();
+    }
+
+    private static Contest.TestCase testCase(String input, String output) {
+        return Contest.TestCase.builder().input(input).output(output).build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.codelearn.search;
+
+import com.codelearn.model.Post;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class InMemoryPostSearchEngineTest {
+
+    // Never rebuilt from Mongo here; posts are indexed directly
+    private final InMemoryPostSearchEngine engine = new InMemoryPostSearchEngine(null);
+
+    @Test
+    void scoresMatchTheBm25Formula() {
+        engine.index(post("a", null, "graph graph tree"));
+        engine.index(post("b", null, "tree"));
+        engine.index(post("c", null, "array sort"));
+
+        // N = 3, df(graph) = 1, tf = 2, length 3 against an average of 2
+        double idf = Math.log(1 + (3 - 1 + 0.5) / (1 + 0.5));
+        double norm = 1.2 * (1 - 0.75 + 0.75 * 3 / 2.0);
+        double expected = idf * 2 * (1.2 + 1) / (2 + norm);
+
+        List<SearchHit> hits = engine.search("graph", null, 10);
+
+        assertThat(hits).extracting(SearchHit::getId).containsExactly("a");
+        assertThat(hits.get(0).getScore()).isCloseTo(expected, within(1e-9));
+    }
+
+    @Test
+    void scoresOfSeveralTermsAreSummed() {
+        engine.index(post("a", null, "graph tree"));
+        engine.index(post("b", null, "graph"));
+        engine.index(post("c", null, "tree"));
+
+        double both = engine.search("graph tree", null, 10).get(0).getScore();
+        double graph = engine.search("graph", null, 10).stream()
+                .filter(hit -> hit.getId().equals("a")).findFirst().orElseThrow().getScore();
+        double tree = engine.search("tree", null, 10).stream()
+                .filter(hit -> hit.getId().equals("a")).findFirst().orElseThrow().getScore();
+
+        assertThat(both).isCloseTo(graph + tree, within(1e-9));
+    }
+
+    @Test
+    void rareTermsOutweighCommonOnes() {
+        engine.index(post("a", null, "dijkstra heap"));
+        engine.index(post("b", null, "array heap"));
+        engine.index(post("c", null, "array sort"));
+        engine.index(post("d", null, "array scan"));
+
+        List<SearchHit> hits = engine.search("dijkstra array", null, 10);
+
+        assertThat(hits.get(0).getId()).isEqualTo("a");
+    }
+
+    @Test
+    void shorterPostsRankAboveLongerOnesWithTheSameMatches() {
+        engine.index(post("short", null, "graph"));
+        engine.index(post("long", null, "graph with a long and wordy statement"));
+
+        assertThat(engine.search("graph", null, 10)).extracting(SearchHit::getId).containsExactly("short", "long");
+    }
+
+    @Test
+    void termFrequencySaturates() {
+        engine.index(post("once", null, "loop x"));
+        engine.index(post("often", null, "loop loop loop loop loop loop loop loop loop loop x"));
+        engine.index(post("other", null, "x"));
+
+        List<SearchHit> hits = engine.search("loop", null, 10);
+        double often = hits.get(0).getScore();
+        double once = hits.get(1).getScore();
+
+        assertThat(hits.get(0).getId()).isEqualTo("often");
+        assertThat(often / once).isLessThan(1.2 + 1);
+    }
+
+    @Test
+    void titleMatchesWeighMoreThanProblemMatches() {
+        engine.index(post("title", "binary search", "find a value"));
+        engine.index(post("problem", "find a value", "binary search"));
+
+        assertThat(engine.search("binary", null, 10)).extracting(SearchHit::getId).containsExactly("title", "problem");
+    }
+
+    @Test
+    void pagesContinueAfterTheLastHitWithTiesOrderedById() {
+        for (String id : List.of("a", "b", "c", "d", "e")) {
+            engine.index(post(id, null, "same words"));
+        }
+
+        List<SearchHit> first = engine.search("same", null, 2);
+        List<SearchHit> second = engine.search("same", first.get(1), 2);
+        List<SearchHit> third = engine.search("same", second.get(1), 2);
+
+        assertThat(first).extracting(SearchHit::getId).containsExactly("e", "d");
+        assertThat(second).extracting(SearchHit::getId).containsExactly("c", "b");
+        assertThat(third).extracting(SearchHit::getId).containsExactly("a");
+    }
+
+    @Test
+    void reindexingAndRemovalReplaceTheOldTerms() {
+        engine.index(post("a", null, "graph"));
+        engine.index(post("b", null, "tree"));
+
+        engine.index(post("a", null, "tree"));
+        assertThat(engine.search("graph", null, 10)).isEmpty();
+        assertThat(engine.search("tree", null, 10)).extracting(SearchHit::getId).containsExactlyInAnyOrder("a", "b");
+
+        engine.remove("b");
+        assertThat(engine.search("tree", null, 10)).extracting(SearchHit::getId).containsExactly("a");
+    }
+
+    @Test
+    void tokensKeepPlusAndHash() {
+        assertThat(InMemoryPostSearchEngine.tokenize("C++ vs C#, in Java!"))
+                .containsExactly("c++", "vs", "c#", "in", "java");
+    }
+
+    private static Post post(String id, String title, String problem) {
+        return Post.builder()
+                .id(id)
+                .title(title)
+                .problem(problem)
+                .tags(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.codelearn.service;
+
+import com.codelearn.event.UserProfileChangedEvent;
+import com.codelearn.model.User;
+import com.codelearn.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthorSummaryCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    void summariesAreServedFromTheCacheUntilTheyExpire() throws InterruptedException {
+        AuthorSummaryCache cache = new AuthorSummaryCache(userRepository, 200, 16);
+        when(userRepository.findSummariesByIdIn(any())).thenReturn(List.of(user("Ann")));
+
+        cache.resolve(List.of("u1"));
+        cache.resolve(List.of("u1"));
+        verify(userRepository, times(1)).findSummariesByIdIn(any());
+
+        Thread.sleep(300);
+        cache.resolve(List.of("u1"));
+        verify(userRepository, times(2)).findSummariesByIdIn(any());
+    }
+
+    @Test
+    void summaryLoadedDuringAnEvictionIsNotCached() {
+        AuthorSummaryCache cache = new AuthorSummaryCache(userRepository, 60_000, 16);
+        // The profile is edited after the query read the old name but before the result is cached
+        when(userRepository.findSummariesByIdIn(any()))
+                .thenAnswer(invocation -> {
+                    cache.onProfileChanged(new UserProfileChangedEvent("u1", 0, null, null, null, null));
+                    return List.of(user("Old name"));
+                })
+                .thenReturn(List.of(user("New name")));
+
+        assertThat(cache.resolve(List.of("u1")).get("u1").getName()).isEqualTo("Old name");
+        assertThat(cache.resolve(List.of("u1")).get("u1").getName()).isEqualTo("New name");
+        assertThat(cache.resolve(List.of("u1")).get("u1").getName()).isEqualTo("New name");
+        verify(userRepository, times(2)).findSummariesByIdIn(any());
+    }
+
+    @Test
+    void profileChangesEvictTheUser() {
+        AuthorSummaryCache cache = new AuthorSummaryCache(userRepository, 60_000, 16);
+        when(userRepository.findSummariesByIdIn(any()))
+                .thenReturn(List.of(user("Old name")))
+                .thenReturn(List.of(user("New name")));
+
+        cache.resolve(List.of("u1"));
+        cache.onProfileChanged(new UserProfileChangedEvent("u1", 0, null, null, null, null));
+
+        assertThat(cache.resolve(List.of("u1")).get("u1").getName()).isEqualTo("New name");
+    }
+
+    private static User user(String name) {
+        return User.builder().id("u1").name(name).build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.codelearn.service;
+
+import com.codelearn.event.ContestLifecycleEvent;
+import com.codelearn.model.Contest;
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ContestLifecycleSchedulerTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ContestLifecycleScheduler scheduler = new ContestLifecycleScheduler(mongoTemplate, eventPublisher);
+
+    @AfterEach
+    void stop() {
+        scheduler.stop();
+    }
+
+    @Test
+    void failedTransitionIsRetried() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Contest.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        scheduler.schedule(Contest.builder()
+                .id("c1")
+                .startTime(LocalDateTime.now().minusHours(2))
+                .endTime(LocalDateTime.now().minusHours(1))
+                .build());
+
+        verify(eventPublisher, timeout(5000)).publishEvent(argThat((Object event) ->
+                event instanceof ContestLifecycleEvent lifecycle && lifecycle.getStatus().equals("completed")));
+    }
+}
@@ -0,0 +1,117 @@
+package com.codelearn.service;
+
+import com.codelearn.CommandRecorder;
+import com.codelearn.EmbeddedMongoTest;
+import com.codelearn.dto.response.PageResponse;
+import com.codelearn.model.Contest;
+import com.codelearn.model.Group;
+import com.codelearn.model.Submission;
+import com.codelearn.model.User;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Contest and submission details are resolved with one query per collection, however many rows refer to them
+class ContestServiceQueryTest extends EmbeddedMongoTest {
+
+    private static final int USERS = 12;
+    private static final int GROUPS = 6;
+
+    @Autowired
+    private ContestService contestService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CommandRecorder commandRecorder;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Group> groups = new ArrayList<>();
+    private Contest contest;
+
+    @BeforeEach
+    void seed() {
+        mongoTemplate.remove(Submission.class).all();
+        mongoTemplate.remove(Contest.class).all();
+        mongoTemplate.remove(Group.class).all();
+        mongoTemplate.remove(User.class).all();
+        users.clear();
+        groups.clear();
+
+        for (int i = 0; i < USERS; i++) {
+            users.add(mongoTemplate.insert(User.builder()
+                    .name("user" + i)
+                    .email("query-test-" + i + "@example.com")
+                    .password("secret")
+                    .build()));
+        }
+        for (int i = 0; i < GROUPS; i++) {
+            groups.add(mongoTemplate.insert(Group.builder()
+                    .name("group" + i)
+                    .inviteCode("QUERY" + i)
+                    .creator(users.get(i).getId())
+                    .build()));
+        }
+
+        List<Contest.ParticipatingGroup> participating = groups.stream()
+                .map(group -> Contest.ParticipatingGroup.builder().group(group.getId()).build())
+                .toList();
+        contest = mongoTemplate.insert(Contest.builder()
+                .title("Query counting")
+                .creator(users.get(0).getId())
+                .participatingGroups(new ArrayList<>(participating))
+                .startTime(LocalDateTime.now())
+                .build());
+
+        // Every user and group is referenced by several submissions
+        for (int i = 0; i < USERS * 3; i++) {
+            mongoTemplate.insert(Submission.builder()
+                    .contest(contest.getId())
+                    .user(users.get(i % USERS).getId())
+                    .group(groups.get(i % GROUPS).getId())
+                    .problem(0)
+                    .code("print(1)")
+                    .language("python")
+                    .verdict("ACCEPTED")
+                    .submittedAt(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    @Test
+    void submissionPageResolvesUsersAndGroupsOnce() {
+        List<PageResponse<Submission>> page = new ArrayList<>();
+        List<BsonDocument> commands = commandRecorder.record(() ->
+                page.add(contestService.getSubmissions(contest.getId(), null, null, 0, 50)));
+
+        assertThat(page.get(0).getContent()).hasSize(USERS * 3)
+                .allSatisfy(submission -> {
+                    assertThat(submission.getUserDetails()).isNotNull();
+                    assertThat(submission.getGroupDetails()).isNotNull();
+                });
+        assertThat(CommandRecorder.queriesOn(commands, "users")).hasSize(1);
+        assertThat(CommandRecorder.queriesOn(commands, "groups")).hasSize(1);
+    }
+
+    @Test
+    void contestDetailsResolveCreatorAndGroupsOnce() {
+        List<Contest> loaded = new ArrayList<>();
+        List<BsonDocument> commands = commandRecorder.record(() ->
+                loaded.add(contestService.getContestById(contest.getId())));
+
+        assertThat(loaded.get(0).getCreatorDetails().getName()).isEqualTo("user0");
+        assertThat(loaded.get(0).getParticipatingGroups())
+                .allSatisfy(group -> assertThat(group.getGroupDetails()).isNotNull());
+        assertThat(CommandRecorder.queriesOn(commands, "users")).hasSize(1);
+        assertThat(CommandRecorder.queriesOn(commands, "groups")).hasSize(1);
+    }
+}
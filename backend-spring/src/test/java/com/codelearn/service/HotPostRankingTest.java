@@ -0,0 +1,91 @@
+package com.codelearn.service;
+
+import com.codelearn.model.Post;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// The score arithmetic runs on the server; these cover how flushed scores are merged into the top posts
+class HotPostRankingTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final HotPostRanking ranking = new HotPostRanking(mongoTemplate);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ranking, "halfLifeHours", 24.0);
+        ReflectionTestUtils.setField(ranking, "topSize", 3);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(Post.class)))
+                .thenReturn(mock(BulkOperations.class));
+    }
+
+    @Test
+    void onlyTheHighestScoresAreKept() {
+        flush(Map.of("a", 1.0, "b", 2.0, "c", 3.0, "d", 4.0, "e", 5.0));
+
+        assertThat(ids(ranking.page(null, null, 10))).containsExactly("e", "d", "c");
+    }
+
+    @Test
+    void rescoredPostsMoveWithoutDuplicates() {
+        flush(Map.of("a", 1.0, "b", 2.0, "c", 3.0));
+        flush(Map.of("a", 4.0));
+
+        assertThat(ids(ranking.page(null, null, 10))).containsExactly("a", "c", "b");
+    }
+
+    @Test
+    void postsPushedOutComeBackWhenTheirScoreRises() {
+        flush(Map.of("a", 1.0, "b", 2.0, "c", 3.0, "d", 4.0));
+        flush(Map.of("a", 5.0));
+
+        assertThat(ids(ranking.page(null, null, 10))).containsExactly("a", "d", "c");
+    }
+
+    @Test
+    void deletedPostsAreNotRanked() {
+        ranking.record("gone", HotPostRanking.VIEW);
+        flush(Map.of("a", 1.0));
+
+        assertThat(ids(ranking.page(null, null, 10))).containsExactly("a");
+
+        ranking.remove("a");
+        assertThat(ranking.page(null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void pagesContinueAfterTheLastEntryEvenOnceItLeftTheRanking() {
+        flush(Map.of("a", 1.0, "b", 1.0, "c", 1.0));
+
+        List<HotPostRanking.Entry> first = ranking.page(null, null, 2);
+        assertThat(ids(first)).containsExactly("c", "b");
+
+        ranking.remove("b");
+        assertThat(ids(ranking.page(first.get(1).getScore(), first.get(1).getId(), 2))).containsExactly("a");
+    }
+
+    // Records engagement for the posts and flushes, with the server reporting the given stored scores
+    private void flush(Map<String, Double> stored) {
+        stored.keySet().forEach(postId -> ranking.record(postId, HotPostRanking.VIEW));
+        when(mongoTemplate.find(any(Query.class), eq(Post.class))).thenReturn(stored.entrySet().stream()
+                .map(score -> Post.builder().id(score.getKey()).hotScore(score.getValue()).build())
+                .toList());
+        ranking.flush();
+    }
+
+    private static List<String> ids(List<HotPostRanking.Entry> entries) {
+        return entries.stream().map(HotPostRanking.Entry::getId).toList();
+    }
+}
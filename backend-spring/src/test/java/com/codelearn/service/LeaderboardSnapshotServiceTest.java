@@ -0,0 +1,46 @@
+package com.codelearn.service;
+
+import com.codelearn.leaderboard.InMemoryLeaderboardEngine;
+import com.codelearn.leaderboard.LeaderboardKeys;
+import com.codelearn.leaderboard.LeaderboardSnapshot;
+import com.codelearn.model.User;
+import com.codelearn.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaderboardSnapshotServiceTest {
+
+    private final InMemoryLeaderboardEngine engine = new InMemoryLeaderboardEngine();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final LeaderboardSnapshotService service =
+            new LeaderboardSnapshotService(engine, userRepository, new ObjectMapper());
+
+    @Test
+    void boardsWithMembersAreBuiltOnce() {
+        when(userRepository.findSummariesByIdIn(any()))
+                .thenReturn(List.of(User.builder().id("u1").name("Ann").build()));
+        engine.setScore(LeaderboardKeys.global(), "u1", 10);
+
+        LeaderboardSnapshot first = service.getSnapshot(LeaderboardKeys.global());
+
+        assertThat(first.getRows()).hasSize(1);
+        assertThat(service.getSnapshot(LeaderboardKeys.global())).isSameAs(first);
+    }
+
+    @Test
+    void boardsWithoutMembersAreNotKept() {
+        String board = LeaderboardKeys.department("MIT", "no such department");
+
+        LeaderboardSnapshot first = service.getSnapshot(board);
+
+        assertThat(first.getRows()).isEmpty();
+        assertThat(service.getSnapshot(board)).isNotSameAs(first);
+    }
+}
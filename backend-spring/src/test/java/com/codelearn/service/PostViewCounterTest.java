@@ -0,0 +1,80 @@
+package com.codelearn.service;
+
+import com.codelearn.EmbeddedMongoTest;
+import com.codelearn.model.Post;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostViewCounterTest extends EmbeddedMongoTest {
+
+    @Autowired
+    private PostViewCounter postViewCounter;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private String postId;
+
+    @BeforeEach
+    void seed() {
+        postId = mongoTemplate.insert(Post.builder().title("views").views(3).build()).getId();
+    }
+
+    @Test
+    void flushAddsPendingViewsToTheStoredCount() {
+        postViewCounter.record(postId);
+        postViewCounter.record(postId);
+        assertThat(postViewCounter.pendingViews(postId)).isEqualTo(2);
+
+        postViewCounter.flush();
+
+        assertThat(postViewCounter.pendingViews(postId)).isZero();
+        assertThat(mongoTemplate.findById(postId, Post.class).getViews()).isEqualTo(5);
+    }
+
+    @Test
+    void viewsRecordedDuringFlushesAreNotLost() throws Exception {
+        int readers = 4;
+        int viewsPerReader = 5000;
+        ExecutorService pool = Executors.newFixedThreadPool(readers + 1);
+        AtomicBoolean reading = new AtomicBoolean(true);
+        try {
+            // Flushes back to back, so posts keep leaving the map while they are being read
+            Future<?> flusher = pool.submit(() -> {
+                while (reading.get()) {
+                    postViewCounter.flush();
+                }
+            });
+            List<Future<?>> views = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                views.add(pool.submit(() -> {
+                    for (int v = 0; v < viewsPerReader; v++) {
+                        postViewCounter.record(postId);
+                    }
+                }));
+            }
+            for (Future<?> view : views) {
+                view.get();
+            }
+            reading.set(false);
+            flusher.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        postViewCounter.flush();
+
+        assertThat(mongoTemplate.findById(postId, Post.class).getViews()).isEqualTo(3 + readers * viewsPerReader);
+    }
+}
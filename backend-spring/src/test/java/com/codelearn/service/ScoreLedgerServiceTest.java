@@ -0,0 +1,91 @@
+package com.codelearn.service;
+
+import com.codelearn.EmbeddedMongoTest;
+import com.codelearn.model.ScoreEvent;
+import com.codelearn.model.User;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoreLedgerServiceTest extends EmbeddedMongoTest {
+
+    private static final String EMAIL = "ledger-test@example.com";
+
+    @Autowired
+    private ScoreLedgerService scoreLedgerService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private String userId;
+
+    @BeforeEach
+    void seed() {
+        mongoTemplate.remove(new Query(Criteria.where("email").is(EMAIL)), User.class);
+        userId = mongoTemplate.insert(User.builder().name("ledger").email(EMAIL).password("secret").build()).getId();
+    }
+
+    @Test
+    void abandonedBatchIsNotCountedTwiceAfterManyLaterBatches() {
+        // An aggregator added the batch's points to the user and crashed before marking its event applied
+        String batch = "abandoned-" + userId;
+        mongoTemplate.updateFirst(byId(userId), new Update().inc("codingScore", 10).addToSet("scoreBatches", batch),
+                User.class);
+        mongoTemplate.insert(ScoreEvent.builder()
+                .id("test:" + batch)
+                .user(userId)
+                .points(10)
+                .reason("test")
+                .createdAt(Instant.now())
+                .batch(batch)
+                .claimedAt(Instant.now())
+                .build());
+
+        // Far more batches than any bounded history would remember
+        for (int i = 0; i < 25; i++) {
+            scoreLedgerService.record("test", userId + ":" + i, userId, 1);
+            scoreLedgerService.flush();
+        }
+
+        mongoTemplate.updateFirst(byId("test:" + batch),
+                new Update().set("claimedAt", Instant.now().minus(Duration.ofHours(1))), ScoreEvent.class);
+        scoreLedgerService.flush();
+
+        Document user = mongoTemplate.findOne(byId(userId), Document.class, "users");
+        assertThat(user.getInteger("codingScore")).isEqualTo(35);
+        assertThat(user.getList("scoreBatches", String.class)).isEmpty();
+        assertThat(mongoTemplate.findOne(byId("test:" + batch), ScoreEvent.class).getApplied()).isTrue();
+    }
+
+    @Test
+    void abandonedBatchIsAppliedToUsersItNeverReached() {
+        String batch = "unapplied-" + userId;
+        mongoTemplate.insert(ScoreEvent.builder()
+                .id("test:" + batch)
+                .user(userId)
+                .points(7)
+                .reason("test")
+                .createdAt(Instant.now())
+                .batch(batch)
+                .claimedAt(Instant.now().minus(Duration.ofHours(1)))
+                .build());
+
+        scoreLedgerService.flush();
+
+        assertThat(mongoTemplate.findOne(byId(userId), User.class).getCodingScore()).isEqualTo(7);
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+}
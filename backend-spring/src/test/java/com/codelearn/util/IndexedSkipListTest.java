@@ -0,0 +1,94 @@
+package com.codelearn.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexedSkipListTest {
+
+    @Test
+    void emptyList() {
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.naturalOrder());
+
+        assertThat(list.size()).isZero();
+        assertThat(list.get(0)).isNull();
+        assertThat(list.rank(1)).isEqualTo(-1);
+        assertThat(list.remove(1)).isFalse();
+        assertThat(list.range(0, 10)).isEmpty();
+    }
+
+    @Test
+    void keepsElementsInComparatorOrder() {
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.reverseOrder());
+        List.of(5, 1, 9, 3, 7).forEach(list::add);
+
+        assertThat(list.range(0, list.size())).containsExactly(9, 7, 5, 3, 1);
+        assertThat(list.rank(9)).isZero();
+        assertThat(list.rank(1)).isEqualTo(4);
+        assertThat(list.get(2)).isEqualTo(5);
+    }
+
+    @Test
+    void removeUpdatesRanksOfLaterElements() {
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.naturalOrder());
+        List.of(10, 20, 30, 40).forEach(list::add);
+
+        assertThat(list.remove(20)).isTrue();
+        assertThat(list.remove(25)).isFalse();
+
+        assertThat(list.size()).isEqualTo(3);
+        assertThat(list.rank(20)).isEqualTo(-1);
+        assertThat(list.rank(30)).isEqualTo(1);
+        assertThat(list.get(2)).isEqualTo(40);
+    }
+
+    @Test
+    void rangeIsClampedToTheListBounds() {
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.naturalOrder());
+        List.of(1, 2, 3).forEach(list::add);
+
+        assertThat(list.range(-5, 2)).containsExactly(1, 2);
+        assertThat(list.range(1, 100)).containsExactly(2, 3);
+        assertThat(list.range(3, 5)).isEmpty();
+        assertThat(list.range(2, 1)).isEmpty();
+        assertThat(list.get(-1)).isNull();
+        assertThat(list.get(3)).isNull();
+    }
+
+    // Random adds and removes checked against a sorted ArrayList after every step
+    @Test
+    void matchesASortedListUnderRandomOperations() {
+        Random random = new Random(42);
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.naturalOrder());
+        List<Integer> model = new ArrayList<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            int value = random.nextInt(2_000);
+            int position = Collections.binarySearch(model, value);
+            if (position < 0) {
+                list.add(value);
+                model.add(-position - 1, value);
+            } else {
+                assertThat(list.remove(value)).isTrue();
+                model.remove(position);
+            }
+
+            assertThat(list.size()).isEqualTo(model.size());
+            if (!model.isEmpty()) {
+                int index = random.nextInt(model.size());
+                assertThat(list.get(index)).isEqualTo(model.get(index));
+                assertThat(list.rank(model.get(index))).isEqualTo(index);
+            }
+            if (step % 1_000 == 0) {
+                assertThat(list.range(0, list.size())).isEqualTo(model);
+            }
+        }
+        assertThat(list.range(0, list.size())).isEqualTo(model);
+    }
+}